@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+# Measures time from process launch to the first successful response for the
+# standard jar, the fast-startup jar (AOT + CDS) and the native image, when built.
+#
+# Requires bash 5 or newer (for EPOCHREALTIME) and curl. The application is
+# considered ready once an authenticated request to the URL returns 200; any
+# other status, including 401 and 404, keeps waiting. The default URL is
+# answered from the in-memory sales sketches and needs no particular data.
+# The sketches and the leaderboard are loaded in the background after startup,
+# so the time until the response no longer reports "warming":true is shown too.
+#
+# Build first:
+#   ./gradlew bootJar
+#   ./gradlew -PfastStartup fastStartup
+#   ./gradlew -PnativeImage nativeCompile   (requires GraalVM)
+#
+# Usage: scripts/measure-startup.sh [url]
+
+if [ -z "${EPOCHREALTIME:-}" ]; then
+	echo "bash 5 or newer is required" >&2
+	exit 1
+fi
+
+URL=${1:-http://localhost:8080/stats/heavy-hitters}
+AUTH=kailas:kailas
+TIMEOUT_MS=300000
+
+now_ms() {
+	# EPOCHREALTIME is seconds with microseconds, e.g. 1700000000.123456
+	local seconds=${EPOCHREALTIME%[.,]*}
+	local micros=${EPOCHREALTIME#*[.,]}
+	echo $((seconds * 1000 + 10#$micros / 1000))
+}
+
+measure() {
+	local name=$1
+	shift
+	local start first second warm pid
+	start=$(now_ms)
+	"$@" > "build/startup-$name.log" 2>&1 &
+	pid=$!
+	until [ "$(curl -s -o /dev/null -u "$AUTH" -w '%{http_code}' "$URL")" = 200 ]; do
+		if ! kill -0 "$pid" 2>/dev/null; then
+			echo "$name: exited before serving requests, see build/startup-$name.log"
+			return
+		fi
+		if [ $(($(now_ms) - start)) -gt $TIMEOUT_MS ]; then
+			echo "$name: no 200 from $URL within $((TIMEOUT_MS / 1000)) s, see build/startup-$name.log"
+			kill "$pid"
+			wait "$pid" 2>/dev/null
+			return
+		fi
+		sleep 0.05
+	done
+	first=$(now_ms)
+	second=$(curl -s -o /dev/null -u "$AUTH" -w '%{time_total}' "$URL")
+	until ! curl -s -u "$AUTH" "$URL" | grep -q '"warming":true'; do
+		if [ $(($(now_ms) - start)) -gt $TIMEOUT_MS ]; then
+			break
+		fi
+		sleep 0.05
+	done
+	warm=$(now_ms)
+	kill "$pid"
+	wait "$pid" 2>/dev/null
+	echo "$name: first response after $((first - start)) ms, next request ${second}s," \
+		"warm after $((warm - start)) ms"
+	grep -m1 'Started SparksupportApplication' "build/startup-$name.log"
+}
+
+JAR=$(ls build/libs/*-SNAPSHOT.jar 2>/dev/null | grep -v plain | head -1)
+[ -n "$JAR" ] && measure standard java -jar "$JAR"
+
+[ -f build/fast-startup/app.jsa ] && measure fast-startup \
+	java -XX:SharedArchiveFile=build/fast-startup/app.jsa -Dspring.aot.enabled=true -jar build/fast-startup/app.jar
+
+[ -x build/native/nativeCompile/sparksupport ] && measure native build/native/nativeCompile/sparksupport
@@ -2,12 +2,14 @@ package com.sparksupport.product;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Main application class for Sparksupport. Configures and launches the Spring
  * Boot application.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SparksupportApplication {
 
 	/**
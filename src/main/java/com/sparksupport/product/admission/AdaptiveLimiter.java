@@ -0,0 +1,155 @@
+package com.sparksupport.product.admission;
+
+/**
+ * Concurrency limit that adapts to observed latency using additive increase and
+ * multiplicative decrease (AIMD).
+ * <p>
+ * The limiter tracks a baseline latency, the lowest recent latency with a slow
+ * upward drift. A request that fails or takes longer than
+ * {@code latencyTolerance} times the baseline is a sign of congestion and
+ * multiplies the limit by {@code backoffRatio}. Other requests completed while
+ * at least half of the limit is in use raise the limit by one.
+ * <p>
+ * All methods are thread-safe.
+ */
+public class AdaptiveLimiter {
+
+	private static final double BASELINE_DRIFT = 0.01;
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final double latencyTolerance;
+
+	private final double backoffRatio;
+
+	private double limit;
+
+	private int inFlight;
+
+	private double baselineNanos = Double.NaN;
+
+	private long accepted;
+
+	private long rejected;
+
+	/**
+	 * Creates a limiter.
+	 *
+	 * @param initialLimit     The initial concurrency limit.
+	 * @param minLimit         The lowest the limit may shrink to.
+	 * @param maxLimit         The highest the limit may grow to.
+	 * @param latencyTolerance The multiple of the baseline latency above which a
+	 *                         request counts as congested.
+	 * @param backoffRatio     The factor the limit is multiplied by on congestion.
+	 */
+	public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double latencyTolerance,
+			double backoffRatio) {
+		if (minLimit < 1 || maxLimit < minLimit || latencyTolerance <= 1 || backoffRatio <= 0 || backoffRatio >= 1) {
+			throw new IllegalArgumentException("Invalid adaptive limiter settings");
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.latencyTolerance = latencyTolerance;
+		this.backoffRatio = backoffRatio;
+		this.limit = Math.min(maxLimit, Math.max(minLimit, initialLimit));
+	}
+
+	/**
+	 * Tries to admit a request without waiting.
+	 *
+	 * @return True if the request was admitted and must be released.
+	 */
+	public boolean tryAcquire() {
+		return tryAcquire(1.0);
+	}
+
+	/**
+	 * Tries to admit a request that may only use a share of the limit.
+	 *
+	 * @param share The fraction of the limit available to the request.
+	 * @return True if the request was admitted and must be released.
+	 */
+	public synchronized boolean tryAcquire(double share) {
+		if (inFlight >= Math.max(1, (int) (limit * share))) {
+			rejected++;
+			return false;
+		}
+		inFlight++;
+		accepted++;
+		return true;
+	}
+
+	/**
+	 * Releases an admitted request and adapts the limit to its outcome.
+	 *
+	 * @param latencyNanos The time the request took.
+	 * @param failed       True if the request failed because of an overloaded
+	 *                     dependency.
+	 * @return True if the request was treated as a congestion signal.
+	 */
+	public synchronized boolean release(long latencyNanos, boolean failed) {
+		if (Double.isNaN(baselineNanos) || latencyNanos < baselineNanos) {
+			baselineNanos = latencyNanos;
+		} else {
+			baselineNanos += (latencyNanos - baselineNanos) * BASELINE_DRIFT;
+		}
+		boolean congested = failed || latencyNanos > baselineNanos * latencyTolerance;
+		boolean saturated = inFlight * 2 >= limit;
+		inFlight--;
+
+		if (congested) {
+			limit = Math.max(minLimit, limit * backoffRatio);
+		} else if (saturated) {
+			limit = Math.min(maxLimit, limit + 1);
+		}
+		return congested;
+	}
+
+	/**
+	 * Releases an admitted request without adapting the limit, for requests that
+	 * were not executed.
+	 */
+	public synchronized void cancel() {
+		inFlight--;
+		accepted--;
+	}
+
+	/**
+	 * @return The current concurrency limit.
+	 */
+	public synchronized int getLimit() {
+		return (int) limit;
+	}
+
+	/**
+	 * @return The number of requests currently admitted.
+	 */
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+
+	/**
+	 * @return The baseline latency in milliseconds, or 0 if nothing was measured
+	 *         yet.
+	 */
+	public synchronized double getBaselineMillis() {
+		return Double.isNaN(baselineNanos) ? 0.0 : baselineNanos / 1_000_000.0;
+	}
+
+	/**
+	 * @return The number of requests admitted so far.
+	 */
+	public synchronized long getAccepted() {
+		return accepted;
+	}
+
+	/**
+	 * @return The number of requests rejected so far.
+	 */
+	public synchronized long getRejected() {
+		return rejected;
+	}
+
+}
@@ -0,0 +1,128 @@
+package com.sparksupport.product.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.sparksupport.product.config.AdmissionProperties;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Admits requests against a global adaptive limit, shared by priority class,
+ * and a separate adaptive limit per endpoint. An expensive endpoint can
+ * therefore only exhaust its own limit and the share of the global limit of its
+ * priority class, and its congestion only lowers the global limits of its own
+ * class and the classes below it.
+ */
+@Component
+public class AdmissionControl {
+
+	@Autowired
+	private AdmissionProperties properties;
+
+	private final Map<String, AdaptiveLimiter> endpointLimiters = new ConcurrentHashMap<>();
+
+	private PriorityLimiter globalLimiter;
+
+	/**
+	 * Creates the global limiter from the configured settings.
+	 */
+	@PostConstruct
+	void init() {
+		globalLimiter = new PriorityLimiter(properties.getGlobalInitialLimit(), properties.getGlobalMinLimit(),
+				properties.getGlobalMaxLimit(), properties.getBackoffRatio());
+	}
+
+	/**
+	 * Tries to admit a request without waiting.
+	 *
+	 * @param method   The HTTP method of the request.
+	 * @param endpoint The endpoint key, made of HTTP method and path pattern.
+	 * @return A Permit that must be released, or null if the request is rejected.
+	 */
+	public Permit tryAdmit(String method, String endpoint) {
+		PriorityClass priority = priorityOf(method, endpoint);
+		if (!globalLimiter.tryAcquire(priority)) {
+			return null;
+		}
+		AdaptiveLimiter endpointLimiter = endpointLimiters.computeIfAbsent(endpoint,
+				key -> new AdaptiveLimiter(properties.getInitialLimit(), properties.getMinLimit(),
+						properties.getMaxLimit(), properties.getLatencyTolerance(), properties.getBackoffRatio()));
+		if (!endpointLimiter.tryAcquire()) {
+			globalLimiter.cancel(priority);
+			return null;
+		}
+		return new Permit(priority, endpointLimiter);
+	}
+
+	/**
+	 * Resolves the priority class of an endpoint.
+	 *
+	 * @param method   The HTTP method of the request.
+	 * @param endpoint The endpoint key, made of HTTP method and path pattern.
+	 * @return The configured priority class, or the default for the method.
+	 */
+	public PriorityClass priorityOf(String method, String endpoint) {
+		PriorityClass priority = properties.getPriorities().get(endpoint);
+		if (priority != null) {
+			return priority;
+		}
+		return "GET".equals(method) ? PriorityClass.NORMAL : PriorityClass.CRITICAL;
+	}
+
+	/**
+	 * @return The global limiter.
+	 */
+	public PriorityLimiter getGlobalLimiter() {
+		return globalLimiter;
+	}
+
+	/**
+	 * @return The limiters of all endpoints seen so far, keyed by endpoint.
+	 */
+	public Map<String, AdaptiveLimiter> getEndpointLimiters() {
+		return endpointLimiters;
+	}
+
+	/**
+	 * An admitted request holding a slot of the global and an endpoint limit.
+	 */
+	public final class Permit {
+
+		private final PriorityClass priority;
+
+		private final AdaptiveLimiter endpointLimiter;
+
+		private final long startNanos = System.nanoTime();
+
+		private Permit(PriorityClass priority, AdaptiveLimiter endpointLimiter) {
+			this.priority = priority;
+			this.endpointLimiter = endpointLimiter;
+		}
+
+		/**
+		 * Releases the permit and adapts both limits to the request's outcome.
+		 *
+		 * @param failed True if the request failed because a dependency was
+		 *               overloaded, such as a database timeout.
+		 */
+		public void release(boolean failed) {
+			// Latencies are only comparable per endpoint, so the global limit follows
+			// the endpoint's congestion signal
+			boolean congested = endpointLimiter.release(System.nanoTime() - startNanos, failed);
+			globalLimiter.release(priority, congested);
+		}
+
+		/**
+		 * Releases the permit without adapting the limits.
+		 */
+		public void cancel() {
+			endpointLimiter.cancel();
+			globalLimiter.cancel(priority);
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.sparksupport.product.admission;
+
+import java.net.SocketTimeoutException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.sparksupport.product.config.AdmissionProperties;
+import com.sparksupport.product.exception.ServiceOverloadedException;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor applying {@link AdmissionControl} to controller requests.
+ * Rejected requests fail fast with a {@link ServiceOverloadedException} instead
+ * of queueing for a database connection. Requests that continue asynchronously
+ * give up their permit once the handler returns. Besides latency, only failures
+ * of overloaded dependencies lower the limits; server errors caused by bad
+ * requests do not.
+ */
+@Component
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+	private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+
+	@Autowired
+	private AdmissionControl admissionControl;
+
+	@Autowired
+	private AdmissionProperties properties;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!properties.isEnabled() || !(handler instanceof HandlerMethod)
+				|| request.getDispatcherType() == DispatcherType.ASYNC) {
+			return true;
+		}
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+
+		AdmissionControl.Permit permit = admissionControl.tryAdmit(request.getMethod(), endpoint);
+		if (permit == null) {
+			throw new ServiceOverloadedException("Too many concurrent requests for " + endpoint,
+					properties.getRetryAfterSeconds());
+		}
+		request.setAttribute(PERMIT_ATTRIBUTE, permit);
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		AdmissionControl.Permit permit = removePermit(request);
+		if (permit != null) {
+			// Exceptions resolved by an exception handler are only kept as a request attribute
+			Object resolved = request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+			permit.release(isOverload(ex != null ? ex : resolved instanceof Throwable t ? t : null));
+		}
+	}
+
+	/**
+	 * Tells whether a request failed because a dependency is overloaded, such as
+	 * a database timeout or an exhausted connection pool. Errors caused by the
+	 * request itself, like malformed input or constraint violations, are not
+	 * congestion even when they end in a server error.
+	 *
+	 * @param failure The exception the request failed with, or null.
+	 * @return Whether the failure is a congestion signal.
+	 */
+	static boolean isOverload(Throwable failure) {
+		for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+			if (cause instanceof TransientDataAccessException || cause instanceof DataAccessResourceFailureException
+					|| cause instanceof CannotCreateTransactionException || cause instanceof SQLTransientException
+					|| cause instanceof TimeoutException || cause instanceof SocketTimeoutException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+			Object handler) {
+		AdmissionControl.Permit permit = removePermit(request);
+		if (permit != null) {
+			permit.cancel();
+		}
+	}
+
+	private AdmissionControl.Permit removePermit(HttpServletRequest request) {
+		AdmissionControl.Permit permit = (AdmissionControl.Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+		request.removeAttribute(PERMIT_ATTRIBUTE);
+		return permit;
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.sparksupport.product.admission;
+
+/**
+ * Priority classes for admission control, declared from highest to lowest.
+ * Each class may only use its share of the global concurrency limit, so lower
+ * classes are shed first when the limit shrinks.
+ */
+public enum PriorityClass {
+
+	/**
+	 * Administrative writes; may use the whole global limit.
+	 */
+	CRITICAL(1.0),
+
+	/**
+	 * Cheap reads that must stay responsive.
+	 */
+	HIGH(0.9),
+
+	/**
+	 * Regular requests.
+	 */
+	NORMAL(0.75),
+
+	/**
+	 * Expensive requests that are shed first.
+	 */
+	LOW(0.5);
+
+	private final double share;
+
+	PriorityClass(double share) {
+		this.share = share;
+	}
+
+	/**
+	 * @return The fraction of the global limit requests of this class may use.
+	 */
+	public double getShare() {
+		return share;
+	}
+
+}
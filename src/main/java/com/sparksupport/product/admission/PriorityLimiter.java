@@ -0,0 +1,135 @@
+package com.sparksupport.product.admission;
+
+import java.util.Arrays;
+
+/**
+ * Global concurrency limit shared by all priority classes, using additive
+ * increase and multiplicative decrease (AIMD) like {@link AdaptiveLimiter}.
+ * <p>
+ * Every class has its own limit on the total number of requests in flight, of
+ * which it may use its {@link PriorityClass#getShare() share}. A congested
+ * request multiplies the limits of its own class and of the classes below it by
+ * {@code backoffRatio}, so congestion on a low-priority endpoint never shrinks
+ * the capacity left to higher classes. A request completed without congestion
+ * raises every limit that is at least half in use by one.
+ * <p>
+ * All methods are thread-safe.
+ */
+public class PriorityLimiter {
+
+	/**
+	 * The priority classes, highest first.
+	 */
+	private static final PriorityClass[] CLASSES = PriorityClass.values();
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final double backoffRatio;
+
+	private final double[] limits = new double[CLASSES.length];
+
+	private final long[] accepted = new long[CLASSES.length];
+
+	private final long[] rejected = new long[CLASSES.length];
+
+	private int inFlight;
+
+	/**
+	 * Creates a limiter.
+	 *
+	 * @param initialLimit The initial concurrency limit of every class.
+	 * @param minLimit     The lowest a limit may shrink to.
+	 * @param maxLimit     The highest a limit may grow to.
+	 * @param backoffRatio The factor a limit is multiplied by on congestion.
+	 */
+	public PriorityLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+		if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+			throw new IllegalArgumentException("Invalid priority limiter settings");
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.backoffRatio = backoffRatio;
+		Arrays.fill(limits, Math.min(maxLimit, Math.max(minLimit, initialLimit)));
+	}
+
+	/**
+	 * Tries to admit a request without waiting.
+	 *
+	 * @param priority The priority class of the request.
+	 * @return True if the request was admitted and must be released.
+	 */
+	public synchronized boolean tryAcquire(PriorityClass priority) {
+		int index = priority.ordinal();
+		if (inFlight >= Math.max(1, (int) (limits[index] * priority.getShare()))) {
+			rejected[index]++;
+			return false;
+		}
+		inFlight++;
+		accepted[index]++;
+		return true;
+	}
+
+	/**
+	 * Releases an admitted request and adapts the limits to its outcome.
+	 *
+	 * @param priority  The priority class of the request.
+	 * @param congested True if the request was a congestion signal.
+	 */
+	public synchronized void release(PriorityClass priority, boolean congested) {
+		for (int index = 0; index < CLASSES.length; index++) {
+			if (congested) {
+				if (index >= priority.ordinal()) {
+					limits[index] = Math.max(minLimit, limits[index] * backoffRatio);
+				}
+			} else if (inFlight * 2 >= limits[index]) {
+				limits[index] = Math.min(maxLimit, limits[index] + 1);
+			}
+		}
+		inFlight--;
+	}
+
+	/**
+	 * Releases an admitted request without adapting the limits, for requests that
+	 * were not executed.
+	 *
+	 * @param priority The priority class of the request.
+	 */
+	public synchronized void cancel(PriorityClass priority) {
+		inFlight--;
+		accepted[priority.ordinal()]--;
+	}
+
+	/**
+	 * @param priority The priority class.
+	 * @return The current concurrency limit of the class.
+	 */
+	public synchronized int getLimit(PriorityClass priority) {
+		return (int) limits[priority.ordinal()];
+	}
+
+	/**
+	 * @return The number of requests currently admitted across all classes.
+	 */
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+
+	/**
+	 * @param priority The priority class.
+	 * @return The number of requests of the class admitted so far.
+	 */
+	public synchronized long getAccepted(PriorityClass priority) {
+		return accepted[priority.ordinal()];
+	}
+
+	/**
+	 * @param priority The priority class.
+	 * @return The number of requests of the class rejected so far.
+	 */
+	public synchronized long getRejected(PriorityClass priority) {
+		return rejected[priority.ordinal()];
+	}
+
+}
@@ -0,0 +1,267 @@
+package com.sparksupport.product.analytics;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sparksupport.product.archive.IArchiveService;
+import com.sparksupport.product.dto.AnalyticsStatusDto;
+import com.sparksupport.product.dto.DailyRevenueDto;
+import com.sparksupport.product.dto.ProductRevenueDto;
+import com.sparksupport.product.dto.RevenueSummaryDto;
+import com.sparksupport.product.event.ProductAddedEvent;
+import com.sparksupport.product.event.ProductDeletedEvent;
+import com.sparksupport.product.event.ProductUpdatedEvent;
+import com.sparksupport.product.event.SaleRecordedEvent;
+import com.sparksupport.product.exception.InvalidRequestException;
+import com.sparksupport.product.repository.ProductRepository;
+import com.sparksupport.product.repository.ProductSummary;
+import com.sparksupport.product.repository.SaleRepository;
+import com.sparksupport.product.repository.SaleRow;
+import com.sparksupport.product.service.LeaderboardMetric;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Service class answering analytical revenue queries from a
+ * {@link ColumnarSalesStore} instead of the OLTP tables. Enabled with
+ * {@code sparksupport.analytics.enabled}. The store is loaded from the sale
+ * table and the archived sales of existing products before the application
+ * serves requests and is kept current from product and sale events after their
+ * transaction commits. Archive operations only move sales, so they leave the
+ * store unchanged.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(prefix = "sparksupport.analytics", name = "enabled", havingValue = "true")
+public class AnalyticsService implements IAnalyticsService {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private SaleRepository saleRepository;
+
+	@Autowired
+	private IArchiveService archiveService;
+
+	@Value("${sparksupport.analytics.parallelism:0}")
+	private int parallelism;
+
+	@Value("${sparksupport.analytics.load-batch-size:10000}")
+	private int loadBatchSize;
+
+	@Value("${sparksupport.analytics.max-limit:100}")
+	private int maxLimit;
+
+	@Value("${sparksupport.analytics.max-days:3660}")
+	private int maxDays;
+
+	/**
+	 * Bound for open-ended ranges, far outside any real sale date but small enough
+	 * for the store's day arithmetic not to overflow.
+	 */
+	private static final int DAY_LIMIT = 1 << 29;
+
+	private ForkJoinPool pool;
+
+	private ColumnarSalesStore store;
+
+	private volatile Instant loadedAt;
+
+	/**
+	 * Creates the store and loads all products and their live and archived sales
+	 * into it.
+	 */
+	@PostConstruct
+	void load() {
+		pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+		store = new ColumnarSalesStore(pool);
+
+		Set<Integer> productIds = new HashSet<>();
+		for (ProductSummary product : productRepository.findAllSummaries()) {
+			store.setPrice(product.getId(), toCents(product.getPrice()));
+			productIds.add(product.getId());
+		}
+		archiveService.readPinned(archive -> {
+			int lastId = 0;
+			List<SaleRow> rows;
+			do {
+				rows = saleRepository.findRowsAfter(lastId, PageRequest.of(0, loadBatchSize));
+				for (SaleRow row : rows) {
+					if (row.getProductId() != null && row.getSaleDate() != null) {
+						store.append(row.getProductId(), row.getQuantity(), (int) row.getSaleDate().toEpochDay());
+					}
+					lastId = row.getId();
+				}
+			} while (rows.size() == loadBatchSize);
+			// Archived sales of deleted products no longer count
+			archive.forEachSale(null, null, productIds,
+					(saleId, productId, quantity, epochDay) -> store.append(productId, quantity, epochDay));
+			return null;
+		});
+
+		loadedAt = Instant.now();
+		log.info("Analytics engine loaded {} sales using {} bytes", store.size(), store.memoryBytes());
+	}
+
+	/**
+	 * Stops the scan workers.
+	 */
+	@PreDestroy
+	void shutdown() {
+		pool.shutdownNow();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public RevenueSummaryDto getRevenue(LocalDate from, LocalDate to) {
+		long[] units = unitsByProduct(from, to);
+		long[] prices = store.effectivePrices();
+		long totalUnits = 0;
+		long revenueCents = 0;
+		for (int p = 0; p < units.length; p++) {
+			totalUnits += units[p];
+			revenueCents += units[p] * prices[p];
+		}
+		return new RevenueSummaryDto(from, to, totalUnits, revenueCents / 100.0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<ProductRevenueDto> getTopProducts(LocalDate from, LocalDate to, LeaderboardMetric metric,
+			int limit) {
+		if (limit < 1 || limit > maxLimit) {
+			throw new InvalidRequestException("Limit must be between 1 and " + maxLimit);
+		}
+		long[] units = unitsByProduct(from, to);
+		long[] prices = store.effectivePrices();
+		long[] score = new long[units.length];
+		for (int p = 0; p < units.length; p++) {
+			score[p] = metric == LeaderboardMetric.UNITS ? units[p] : units[p] * prices[p];
+		}
+
+		// Bounded min-heap keeps the top entries in O(P log N) for P products
+		PriorityQueue<Integer> top = new PriorityQueue<>(
+				Comparator.<Integer>comparingLong(p -> score[p]).thenComparing(Comparator.reverseOrder()));
+		for (int p = 0; p < units.length; p++) {
+			if (units[p] > 0) {
+				top.offer(p);
+				if (top.size() > limit) {
+					top.poll();
+				}
+			}
+		}
+		List<ProductRevenueDto> result = new ArrayList<>(top.size());
+		while (!top.isEmpty()) {
+			int p = top.poll();
+			result.add(0, new ProductRevenueDto(p, units[p], units[p] * prices[p] / 100.0));
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<DailyRevenueDto> getDailyRevenue(LocalDate from, LocalDate to, Integer productId) {
+		if (from.isAfter(to) || to.toEpochDay() - from.toEpochDay() >= maxDays || toDay(from) != from.toEpochDay()) {
+			// The last condition rejects dates too far out for the store's int epoch days
+			throw new InvalidRequestException("Date range must be ordered and at most " + maxDays + " days long");
+		}
+		int fromDay = toDay(from);
+		long[][] totals = store.totalsByDay(fromDay, toDay(to), productId != null ? productId : -1);
+
+		List<DailyRevenueDto> result = new ArrayList<>(totals[0].length);
+		for (int i = 0; i < totals[0].length; i++) {
+			result.add(new DailyRevenueDto(LocalDate.ofEpochDay(fromDay + i), totals[0][i], totals[1][i] / 100.0));
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public AnalyticsStatusDto getStatus() {
+		return new AnalyticsStatusDto(store.size(), store.productSlots(), store.memoryBytes(),
+				pool.getParallelism(), loadedAt);
+	}
+
+	/**
+	 * Appends a committed sale to the store.
+	 *
+	 * @param event The sale event.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onSaleRecorded(SaleRecordedEvent event) {
+		if (event.getSaleDate() != null) {
+			store.setPrice(event.getProductId(), toCents(event.getPrice()));
+			store.append(event.getProductId(), event.getQuantity(), (int) event.getSaleDate().toEpochDay());
+		}
+	}
+
+	/**
+	 * Registers the price of a committed new product.
+	 *
+	 * @param event The product event.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductAdded(ProductAddedEvent event) {
+		store.setPrice(event.getProductId(), toCents(event.getPrice()));
+	}
+
+	/**
+	 * Updates the price of a committed product update.
+	 *
+	 * @param event The product event.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductUpdated(ProductUpdatedEvent event) {
+		store.setPrice(event.getProductId(), toCents(event.getPrice()));
+	}
+
+	/**
+	 * Excludes a deleted product from all queries.
+	 *
+	 * @param event The product event.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductDeleted(ProductDeletedEvent event) {
+		store.deleteProduct(event.getProductId());
+	}
+
+	private long[] unitsByProduct(LocalDate from, LocalDate to) {
+		if (from == null && to == null) {
+			return store.unitsByProduct();
+		}
+		return store.unitsByProduct(from != null ? toDay(from) : -DAY_LIMIT, to != null ? toDay(to) : DAY_LIMIT);
+	}
+
+	/**
+	 * Clamps a date to an epoch day the store can compare without overflow.
+	 */
+	private static int toDay(LocalDate date) {
+		return (int) Math.max(-DAY_LIMIT, Math.min(DAY_LIMIT, date.toEpochDay()));
+	}
+
+	private static long toCents(double price) {
+		return Math.round(price * 100);
+	}
+
+}
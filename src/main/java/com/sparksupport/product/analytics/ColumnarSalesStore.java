@@ -0,0 +1,304 @@
+package com.sparksupport.product.analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Append-only columnar copy of the sale table held in primitive arrays.
+ * <p>
+ * Each sale takes 12 bytes: product ID, quantity and epoch day columns stored
+ * in fixed-size segments, so appending never copies existing rows. Prices are
+ * kept per product in cents, since revenue is units sold multiplied by the
+ * current product price. Deleted products are flagged rather than removed and
+ * are excluded from every aggregation.
+ * <p>
+ * Appends and product changes are serialized, and the per-product arrays they
+ * update in place are only read under the same lock. Scans run concurrently
+ * with them and see every row appended before the scan started. Scans split the rows into
+ * one contiguous range per worker and run branch-free loops over the columns.
+ */
+public class ColumnarSalesStore {
+
+	private static final int SEGMENT_BITS = 20;
+
+	private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+
+	private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+	private final ForkJoinPool pool;
+
+	private volatile Segment[] segments = new Segment[0];
+
+	private volatile int size;
+
+	private volatile long[] priceCents = new long[0];
+
+	private volatile long[] unitsByProduct = new long[0];
+
+	private volatile boolean[] deleted = new boolean[0];
+
+	/**
+	 * Creates an empty store.
+	 *
+	 * @param pool The pool scans are parallelized on.
+	 */
+	public ColumnarSalesStore(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Appends a sale.
+	 *
+	 * @param productId The ID of the product sold.
+	 * @param quantity  The quantity sold.
+	 * @param epochDay  The sale date as days since 1970-01-01.
+	 */
+	public synchronized void append(int productId, int quantity, int epochDay) {
+		ensureProduct(productId);
+		int row = size;
+		int segment = row >>> SEGMENT_BITS;
+		if (segment == segments.length) {
+			Segment[] grown = Arrays.copyOf(segments, segment + 1);
+			grown[segment] = new Segment();
+			segments = grown;
+		}
+		Segment target = segments[segment];
+		int index = row & SEGMENT_MASK;
+		target.productIds[index] = productId;
+		target.quantities[index] = quantity;
+		target.epochDays[index] = epochDay;
+		unitsByProduct[productId] += quantity;
+		// Publishing the new size makes the row visible to scans
+		size = row + 1;
+	}
+
+	/**
+	 * Sets the current price of a product.
+	 *
+	 * @param productId  The ID of the product.
+	 * @param priceCents The price in cents.
+	 */
+	public synchronized void setPrice(int productId, long priceCents) {
+		ensureProduct(productId);
+		this.priceCents[productId] = priceCents;
+		deleted[productId] = false;
+	}
+
+	/**
+	 * Excludes a deleted product from all aggregations.
+	 *
+	 * @param productId The ID of the product.
+	 */
+	public synchronized void deleteProduct(int productId) {
+		if (productId < deleted.length) {
+			deleted[productId] = true;
+		}
+	}
+
+	/**
+	 * @return The number of rows in the store.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return The number of product slots, one more than the highest product ID.
+	 */
+	public int productSlots() {
+		return priceCents.length;
+	}
+
+	/**
+	 * @return The approximate heap size of the columns in bytes.
+	 */
+	public long memoryBytes() {
+		return (long) segments.length * SEGMENT_SIZE * 12 + (long) priceCents.length * 17;
+	}
+
+	/**
+	 * @param productId The ID of the product.
+	 * @return The price of the product in cents, or 0 if unknown or deleted.
+	 */
+	public synchronized long priceCents(int productId) {
+		return productId < priceCents.length && !deleted[productId] ? priceCents[productId] : 0;
+	}
+
+	/**
+	 * @param productId The ID of the product.
+	 * @return True if the product is known and not deleted.
+	 */
+	public synchronized boolean isLive(int productId) {
+		return productId >= 0 && productId < deleted.length && !deleted[productId];
+	}
+
+	/**
+	 * Returns the all-time units sold per product, maintained on append.
+	 *
+	 * @return Units indexed by product ID; deleted products are 0.
+	 */
+	public synchronized long[] unitsByProduct() {
+		return withoutDeleted(unitsByProduct.clone());
+	}
+
+	/**
+	 * Sums the units sold per product for sales within a date range.
+	 *
+	 * @param fromDay The first epoch day to include.
+	 * @param toDay   The last epoch day to include.
+	 * @return Units indexed by product ID; deleted products are 0.
+	 */
+	public long[] unitsByProduct(int fromDay, int toDay) {
+		int rows = size;
+		Segment[] snapshot = segments;
+		int slots = productSlots();
+		long[] units = scan(rows, () -> new long[slots], (acc, from, to) -> {
+			for (int row = from; row < to;) {
+				Segment segment = snapshot[row >>> SEGMENT_BITS];
+				int start = row & SEGMENT_MASK;
+				int end = Math.min(SEGMENT_SIZE, start + (to - row));
+				int[] products = segment.productIds;
+				int[] quantities = segment.quantities;
+				int[] days = segment.epochDays;
+				for (int i = start; i < end; i++) {
+					int day = days[i];
+					// 1 when fromDay <= day <= toDay, otherwise 0, without a branch
+					int inRange = (((day - fromDay) | (toDay - day)) >>> 31) ^ 1;
+					acc[products[i]] += quantities[i] * inRange;
+				}
+				row += end - start;
+			}
+		});
+		synchronized (this) {
+			return withoutDeleted(units);
+		}
+	}
+
+	/**
+	 * Sums units and revenue per day within a date range, optionally for a single
+	 * product.
+	 *
+	 * @param fromDay   The first epoch day to include.
+	 * @param toDay     The last epoch day to include.
+	 * @param productId The product to include, or -1 for all products.
+	 * @return Units at [0][day - fromDay] and revenue in cents at
+	 *         [1][day - fromDay].
+	 */
+	public long[][] totalsByDay(int fromDay, int toDay, int productId) {
+		int rows = size;
+		Segment[] snapshot = segments;
+		int days = toDay - fromDay + 1;
+		long[] prices = effectivePrices();
+		return scan(rows, () -> new long[2][days], (acc, from, to) -> {
+			long[] units = acc[0];
+			long[] revenue = acc[1];
+			for (int row = from; row < to;) {
+				Segment segment = snapshot[row >>> SEGMENT_BITS];
+				int start = row & SEGMENT_MASK;
+				int end = Math.min(SEGMENT_SIZE, start + (to - row));
+				int[] products = segment.productIds;
+				int[] quantities = segment.quantities;
+				int[] epochDays = segment.epochDays;
+				for (int i = start; i < end; i++) {
+					int offset = epochDays[i] - fromDay;
+					int product = products[i];
+					if (offset >= 0 && offset < days && (productId < 0 || product == productId)) {
+						units[offset] += quantities[i];
+						revenue[offset] += quantities[i] * prices[product];
+					}
+				}
+				row += end - start;
+			}
+		});
+	}
+
+	/**
+	 * @return The price in cents per product ID, with deleted products at 0.
+	 */
+	public synchronized long[] effectivePrices() {
+		return withoutDeleted(priceCents.clone());
+	}
+
+	/**
+	 * Zeroes the values of deleted products. Called with the store locked.
+	 *
+	 * @param values Values indexed by product ID.
+	 * @return The same array.
+	 */
+	private long[] withoutDeleted(long[] values) {
+		for (int p = 0; p < Math.min(values.length, deleted.length); p++) {
+			if (deleted[p]) {
+				values[p] = 0;
+			}
+		}
+		return values;
+	}
+
+	private void ensureProduct(int productId) {
+		if (productId >= priceCents.length) {
+			int slots = Math.max(productId + 1, priceCents.length * 2);
+			unitsByProduct = Arrays.copyOf(unitsByProduct, slots);
+			deleted = Arrays.copyOf(deleted, slots);
+			priceCents = Arrays.copyOf(priceCents, slots);
+		}
+	}
+
+	/**
+	 * Runs a scan over row ranges in parallel, one range per worker, and adds up
+	 * the per-range accumulators element by element.
+	 */
+	private <A> A scan(int rows, Supplier<A> accumulator, RangeScan<A> rangeScan) {
+		int tasks = Math.max(1, Math.min(pool.getParallelism(), rows / 65536 + 1));
+		int perTask = rows / tasks + 1;
+		return pool.submit(() -> IntStream.range(0, tasks).parallel().mapToObj(task -> {
+			A acc = accumulator.get();
+			int from = task * perTask;
+			int to = Math.min(rows, from + perTask);
+			if (from < to) {
+				rangeScan.scan(acc, from, to);
+			}
+			return acc;
+		}).reduce(ColumnarSalesStore::add).orElseGet(accumulator)).join();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <A> A add(A left, A right) {
+		if (left instanceof long[] l) {
+			long[] r = (long[]) right;
+			for (int i = 0; i < l.length; i++) {
+				l[i] += r[i];
+			}
+		} else {
+			long[][] l = (long[][]) left;
+			long[][] r = (long[][]) right;
+			for (int row = 0; row < l.length; row++) {
+				l[row] = add(l[row], r[row]);
+			}
+		}
+		return left;
+	}
+
+	/**
+	 * Scans the rows in [from, to) into an accumulator.
+	 */
+	@FunctionalInterface
+	private interface RangeScan<A> {
+
+		void scan(A accumulator, int from, int to);
+	}
+
+	/**
+	 * Fixed-size block of rows.
+	 */
+	private static final class Segment {
+
+		private final int[] productIds = new int[SEGMENT_SIZE];
+
+		private final int[] quantities = new int[SEGMENT_SIZE];
+
+		private final int[] epochDays = new int[SEGMENT_SIZE];
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.sparksupport.product.analytics;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.sparksupport.product.dto.AnalyticsStatusDto;
+import com.sparksupport.product.dto.DailyRevenueDto;
+import com.sparksupport.product.dto.ProductRevenueDto;
+import com.sparksupport.product.dto.RevenueSummaryDto;
+import com.sparksupport.product.exception.InvalidRequestException;
+import com.sparksupport.product.service.LeaderboardMetric;
+
+public interface IAnalyticsService {
+
+	/**
+	 * Calculates the units sold and revenue over a date range.
+	 *
+	 * @param from The earliest sale date to include, or null for no lower bound.
+	 * @param to   The latest sale date to include, or null for no upper bound.
+	 * @return The RevenueSummaryDto of the range.
+	 */
+	public RevenueSummaryDto getRevenue(LocalDate from, LocalDate to);
+
+	/**
+	 * Retrieves the best-selling products over a date range.
+	 *
+	 * @param from   The earliest sale date to include, or null for no lower bound.
+	 * @param to     The latest sale date to include, or null for no upper bound.
+	 * @param metric The metric to rank products by.
+	 * @param limit  The maximum number of products to return.
+	 * @return List of ProductRevenueDto, best first.
+	 */
+	public List<ProductRevenueDto> getTopProducts(LocalDate from, LocalDate to, LeaderboardMetric metric, int limit);
+
+	/**
+	 * Calculates the units sold and revenue per day, optionally for one product.
+	 *
+	 * @param from      The first day.
+	 * @param to        The last day.
+	 * @param productId The product to include, or null for all products.
+	 * @return List of DailyRevenueDto, one per day in the range.
+	 * @throws InvalidRequestException If the range is reversed or too long.
+	 */
+	public List<DailyRevenueDto> getDailyRevenue(LocalDate from, LocalDate to, Integer productId);
+
+	/**
+	 * @return The AnalyticsStatusDto of the engine.
+	 */
+	public AnalyticsStatusDto getStatus();
+
+}
@@ -0,0 +1,166 @@
+package com.sparksupport.product.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.sparksupport.product.dto.SaleDto;
+
+/**
+ * An immutable set of open segments, oldest first, with the units per product
+ * summed from their indexes.
+ */
+final class ArchiveCatalog implements ArchiveView {
+
+	static final ArchiveCatalog EMPTY = new ArchiveCatalog(List.of());
+
+	private final List<ArchiveSegment> segments;
+
+	private final Map<String, ArchiveSegment> segmentsByName;
+
+	private final Map<Integer, Long> unitsByProduct;
+
+	private final long sales;
+
+	private final long bytes;
+
+	ArchiveCatalog(Collection<ArchiveSegment> segments) {
+		List<ArchiveSegment> sorted = new ArrayList<>(segments);
+		sorted.sort(Comparator.comparingInt(ArchiveSegment::minDay).thenComparing(ArchiveSegment::name));
+		Map<String, ArchiveSegment> byName = new HashMap<>();
+		Map<Integer, Long> units = new HashMap<>();
+		long rows = 0;
+		long size = 0;
+		for (ArchiveSegment segment : sorted) {
+			byName.put(segment.name(), segment);
+			segment.forEachProduct((productId, productUnits) -> units.merge(productId, productUnits, Long::sum));
+			rows += segment.rows();
+			size += segment.bytes();
+		}
+		this.segments = List.copyOf(sorted);
+		this.segmentsByName = Collections.unmodifiableMap(byName);
+		this.unitsByProduct = Collections.unmodifiableMap(units);
+		this.sales = rows;
+		this.bytes = size;
+	}
+
+	/**
+	 * @param segment The segment to add.
+	 * @return A catalog with the segment added.
+	 */
+	ArchiveCatalog with(ArchiveSegment segment) {
+		List<ArchiveSegment> added = new ArrayList<>(segments);
+		added.add(segment);
+		return new ArchiveCatalog(added);
+	}
+
+	/**
+	 * @param segment The segment to remove.
+	 * @return A catalog without the segment.
+	 */
+	ArchiveCatalog without(ArchiveSegment segment) {
+		List<ArchiveSegment> remaining = new ArrayList<>(segments);
+		remaining.remove(segment);
+		return new ArchiveCatalog(remaining);
+	}
+
+	List<ArchiveSegment> segments() {
+		return segments;
+	}
+
+	/**
+	 * @param name The file name of a segment.
+	 * @return The segment, or null if it is not in this catalog.
+	 */
+	ArchiveSegment segment(String name) {
+		return segmentsByName.get(name);
+	}
+
+	Set<String> names() {
+		return segmentsByName.keySet();
+	}
+
+	long sales() {
+		return sales;
+	}
+
+	long bytes() {
+		return bytes;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getUnits(int productId) {
+		return unitsByProduct.getOrDefault(productId, 0L);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Map<Integer, Long> getUnitsByProduct() {
+		return unitsByProduct;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Map<Integer, List<SaleDto>> getSales(Collection<Integer> productIds) {
+		Map<Integer, List<SaleDto>> salesByProduct = new HashMap<>();
+		Set<Integer> wanted = new LinkedHashSet<>(productIds);
+		try {
+			for (ArchiveSegment segment : segments) {
+				for (int productId : wanted) {
+					ArchiveSegment.Rows rows = segment.read(productId);
+					if (rows == null) {
+						continue;
+					}
+					List<SaleDto> sales = salesByProduct.computeIfAbsent(productId, id -> new ArrayList<>());
+					for (int i = 0; i < rows.size(); i++) {
+						sales.add(new SaleDto(rows.saleIds()[i], rows.quantities()[i],
+								LocalDate.ofEpochDay(rows.epochDays()[i])));
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		// Consecutive segments may share a boundary day
+		salesByProduct.values().forEach(
+				sales -> sales.sort(Comparator.comparing(SaleDto::getSaleDate).thenComparingInt(SaleDto::getId)));
+		return salesByProduct;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void forEachSale(LocalDate from, LocalDate to, Set<Integer> productIds, SaleConsumer consumer) {
+		int fromDay = from != null ? (int) from.toEpochDay() : Integer.MIN_VALUE;
+		int toDay = to != null ? (int) to.toEpochDay() : Integer.MAX_VALUE;
+		try {
+			for (ArchiveSegment segment : segments) {
+				segment.scan(fromDay, toDay, productIds, consumer);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<ArchiveView> split() {
+		return segments.stream().map(segment -> new ArchiveCatalog(List.of(segment))).collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,461 @@
+package com.sparksupport.product.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An immutable, compressed file of archived sales, read through a memory
+ * mapping. The file starts with a fixed header holding the row count, the date
+ * and sale ID ranges and a CRC32 checksum, followed by a product index and one
+ * separately deflated block of rows per product:
+ *
+ * <pre>
+ * header   48 bytes   magic, version, rows, minDay, maxDay, minSaleId, maxSaleId,
+ *                     products, bodyLength, reserved, checksum (long)
+ * index    24 bytes   productId, rows, units (long), block offset, block length
+ *                     per product, sorted by productId
+ * body     deflated   per product: day deltas, quantities, sale ID deltas;
+ *                     rows ints each, sorted by sale date and sale ID
+ * </pre>
+ *
+ * The header and index are read straight from the mapping, so pruning by date
+ * and product and per-product unit totals never inflate the body, and the
+ * history of one product inflates only its own block. The checksum covers every
+ * byte of the file except itself.
+ */
+final class ArchiveSegment {
+
+	private static final int MAGIC = 0x53534152;
+
+	private static final int VERSION = 2;
+
+	private static final int HEADER_BYTES = 48;
+
+	private static final int CHECKSUM_OFFSET = 40;
+
+	private static final int INDEX_ENTRY_BYTES = 24;
+
+	private final Path path;
+
+	private final MappedByteBuffer buffer;
+
+	private final int rows;
+
+	private final int minDay;
+
+	private final int maxDay;
+
+	private final int minSaleId;
+
+	private final int maxSaleId;
+
+	private final int products;
+
+	private final int bodyLength;
+
+	private final long checksum;
+
+	private ArchiveSegment(Path path, MappedByteBuffer buffer) throws IOException {
+		this.path = path;
+		this.buffer = buffer;
+		if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException("Not an archive segment: " + path);
+		}
+		rows = buffer.getInt(8);
+		minDay = buffer.getInt(12);
+		maxDay = buffer.getInt(16);
+		minSaleId = buffer.getInt(20);
+		maxSaleId = buffer.getInt(24);
+		products = buffer.getInt(28);
+		bodyLength = buffer.getInt(32);
+		checksum = buffer.getLong(CHECKSUM_OFFSET);
+		if (rows < 0 || products < 0 || bodyLength < 0
+				|| (long) HEADER_BYTES + (long) products * INDEX_ENTRY_BYTES + bodyLength != buffer.capacity()) {
+			throw new IOException("Truncated archive segment: " + path);
+		}
+	}
+
+	/**
+	 * Maps an existing segment file.
+	 *
+	 * @param path   The segment file.
+	 * @param verify Whether to check the checksum of the whole file.
+	 * @return The opened segment.
+	 * @throws IOException If the file cannot be read, is not a segment or fails
+	 *                     the checksum.
+	 */
+	static ArchiveSegment open(Path path, boolean verify) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			// The mapping stays valid after the channel is closed
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		ArchiveSegment segment = new ArchiveSegment(path, buffer);
+		if (verify && !segment.verify()) {
+			throw new IOException("Checksum mismatch in archive segment: " + path);
+		}
+		return segment;
+	}
+
+	/**
+	 * Writes sales to a new segment file. The rows are sorted by product, sale
+	 * date and sale ID first. The file is written next to the target, forced to
+	 * disk and then atomically moved into place, and the directory is forced
+	 * after the move, so once this returns the target is durable and complete.
+	 *
+	 * @param target The path of the new segment.
+	 * @param sales  The sales to write; reordered in place.
+	 * @throws IOException If the file cannot be written.
+	 */
+	static void write(Path target, ArchivedSale[] sales) throws IOException {
+		Arrays.sort(sales, Comparator.comparingInt(ArchivedSale::productId).thenComparingInt(ArchivedSale::epochDay)
+				.thenComparingInt(ArchivedSale::saleId));
+		int rows = sales.length;
+		int minDay = Arrays.stream(sales).mapToInt(ArchivedSale::epochDay).min().orElse(0);
+		int maxDay = Arrays.stream(sales).mapToInt(ArchivedSale::epochDay).max().orElse(0);
+		int minSaleId = Arrays.stream(sales).mapToInt(ArchivedSale::saleId).min().orElse(0);
+		int maxSaleId = Arrays.stream(sales).mapToInt(ArchivedSale::saleId).max().orElse(0);
+
+		// One index entry per distinct product, which are adjacent after the sort
+		int products = rows == 0 ? 0 : 1;
+		for (int i = 1; i < rows; i++) {
+			if (sales[i].productId() != sales[i - 1].productId()) {
+				products++;
+			}
+		}
+		ByteBuffer index = ByteBuffer.allocate(Math.multiplyExact(products, INDEX_ENTRY_BYTES));
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			for (int first = 0; first < rows;) {
+				int productId = sales[first].productId();
+				int end = first;
+				long units = 0;
+				for (; end < rows && sales[end].productId() == productId; end++) {
+					units += sales[end].quantity();
+				}
+				// Columns compress far better than interleaved rows; most deltas are small
+				int count = end - first;
+				ByteBuffer columns = ByteBuffer.allocate(Math.multiplyExact(count, 12));
+				int previousDay = minDay;
+				int previousSaleId = minSaleId;
+				for (int i = first; i < end; i++) {
+					columns.putInt(sales[i].epochDay() - previousDay);
+					previousDay = sales[i].epochDay();
+				}
+				for (int i = first; i < end; i++) {
+					columns.putInt(sales[i].quantity());
+				}
+				for (int i = first; i < end; i++) {
+					columns.putInt(sales[i].saleId() - previousSaleId);
+					previousSaleId = sales[i].saleId();
+				}
+				byte[] block = deflate(deflater, columns.array());
+				index.putInt(productId).putInt(count).putLong(units).putInt(body.size()).putInt(block.length);
+				body.write(block);
+				first = end;
+			}
+		} finally {
+			deflater.end();
+		}
+		byte[] bodyBytes = body.toByteArray();
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+		header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(minDay).putInt(maxDay).putInt(minSaleId)
+				.putInt(maxSaleId).putInt(products).putInt(bodyBytes.length).putInt(0);
+
+		CRC32 crc = new CRC32();
+		crc.update(header.array(), 0, CHECKSUM_OFFSET);
+		crc.update(index.array(), 0, index.position());
+		crc.update(bodyBytes);
+		header.putLong(CHECKSUM_OFFSET, crc.getValue());
+
+		Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			header.rewind();
+			index.flip();
+			ByteBuffer[] parts = { header, index, ByteBuffer.wrap(bodyBytes) };
+			long remaining = HEADER_BYTES + index.remaining() + bodyBytes.length;
+			while (remaining > 0) {
+				remaining -= channel.write(parts);
+			}
+			channel.force(true);
+		}
+		Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+		forceDirectory(target.getParent());
+	}
+
+	/**
+	 * Forces a directory to disk, making renames and deletions of its entries
+	 * durable.
+	 *
+	 * @param directory The directory.
+	 * @throws IOException If the directory cannot be forced.
+	 */
+	static void forceDirectory(Path directory) throws IOException {
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		}
+	}
+
+	/**
+	 * Recomputes the checksum of the file and compares it with the stored one.
+	 *
+	 * @return Whether the file is intact.
+	 */
+	boolean verify() {
+		CRC32 crc = new CRC32();
+		crc.update(buffer.slice(0, CHECKSUM_OFFSET));
+		crc.update(buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES));
+		return crc.getValue() == checksum;
+	}
+
+	/**
+	 * Looks up the position of a product in the index by binary search.
+	 *
+	 * @param productId The product ID.
+	 * @return The byte offset of the index entry, or -1 if the segment holds no
+	 *         sales of the product.
+	 */
+	private int indexEntry(int productId) {
+		int low = 0;
+		int high = products - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int offset = HEADER_BYTES + mid * INDEX_ENTRY_BYTES;
+			int id = buffer.getInt(offset);
+			if (id < productId) {
+				low = mid + 1;
+			} else if (id > productId) {
+				high = mid - 1;
+			} else {
+				return offset;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param productId The product ID.
+	 * @return Whether the segment holds sales of the product.
+	 */
+	boolean containsProduct(int productId) {
+		return indexEntry(productId) >= 0;
+	}
+
+	/**
+	 * @param productId The product ID.
+	 * @return The units of the product sold in this segment, from the index.
+	 */
+	long units(int productId) {
+		int offset = indexEntry(productId);
+		return offset < 0 ? 0 : buffer.getLong(offset + 8);
+	}
+
+	/**
+	 * Calls the consumer with the product ID and units of every index entry.
+	 *
+	 * @param consumer Receives the product ID and its units.
+	 */
+	void forEachProduct(ProductUnitsConsumer consumer) {
+		for (int i = 0; i < products; i++) {
+			int offset = HEADER_BYTES + i * INDEX_ENTRY_BYTES;
+			consumer.accept(buffer.getInt(offset), buffer.getLong(offset + 8));
+		}
+	}
+
+	/**
+	 * Inflates the block of a single product.
+	 *
+	 * @param productId The product ID.
+	 * @return The rows of the product sorted by sale date and sale ID, or null if
+	 *         the segment holds no sales of the product.
+	 * @throws IOException If the block is corrupt.
+	 */
+	Rows read(int productId) throws IOException {
+		int offset = indexEntry(productId);
+		if (offset < 0) {
+			return null;
+		}
+		Inflater inflater = new Inflater();
+		try {
+			return readBlock(inflater, offset);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Calls the consumer with every sale of the selected products within a day
+	 * range, inflating only the blocks of those products.
+	 *
+	 * @param fromDay    The earliest epoch day to include.
+	 * @param toDay      The latest epoch day to include.
+	 * @param productIds The IDs of the products to include, or null for all.
+	 * @param consumer   Receives the sales, grouped by product.
+	 * @throws IOException If a block is corrupt.
+	 */
+	void scan(int fromDay, int toDay, Set<Integer> productIds, ArchiveView.SaleConsumer consumer)
+			throws IOException {
+		if (fromDay > maxDay || toDay < minDay) {
+			return;
+		}
+		Inflater inflater = new Inflater();
+		try {
+			for (int i = 0; i < products; i++) {
+				int offset = HEADER_BYTES + i * INDEX_ENTRY_BYTES;
+				int productId = buffer.getInt(offset);
+				if (productIds != null && !productIds.contains(productId)) {
+					continue;
+				}
+				Rows rows = readBlock(inflater, offset);
+				for (int row = 0; row < rows.size(); row++) {
+					int day = rows.epochDays()[row];
+					if (day >= fromDay && day <= toDay) {
+						consumer.accept(rows.saleIds()[row], productId, rows.quantities()[row], day);
+					}
+				}
+			}
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Inflates the block described by an index entry.
+	 */
+	private Rows readBlock(Inflater inflater, int entryOffset) throws IOException {
+		int count = buffer.getInt(entryOffset + 4);
+		int blockOffset = buffer.getInt(entryOffset + 16);
+		int blockLength = buffer.getInt(entryOffset + 20);
+		int bodyStart = HEADER_BYTES + products * INDEX_ENTRY_BYTES;
+		if (count < 0 || count > rows || blockOffset < 0 || blockLength < 0
+				|| (long) blockOffset + blockLength > bodyLength) {
+			throw new IOException("Corrupt index in archive segment: " + path);
+		}
+		byte[] raw = new byte[count * 12];
+		inflater.reset();
+		try {
+			inflater.setInput(buffer.slice(bodyStart + blockOffset, blockLength));
+			int length = 0;
+			while (!inflater.finished() && length < raw.length) {
+				int n = inflater.inflate(raw, length, raw.length - length);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				length += n;
+			}
+			if (length != raw.length || !inflater.finished()) {
+				throw new IOException("Corrupt body in archive segment: " + path);
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt body in archive segment: " + path, e);
+		}
+
+		ByteBuffer columns = ByteBuffer.wrap(raw);
+		int[] epochDays = new int[count];
+		int[] quantities = new int[count];
+		int[] saleIds = new int[count];
+		int day = minDay;
+		for (int i = 0; i < count; i++) {
+			day += columns.getInt();
+			epochDays[i] = day;
+		}
+		columns.asIntBuffer().get(quantities);
+		columns.position(columns.position() + count * 4);
+		int saleId = minSaleId;
+		for (int i = 0; i < count; i++) {
+			saleId += columns.getInt();
+			saleIds[i] = saleId;
+		}
+		return new Rows(saleIds, quantities, epochDays);
+	}
+
+	private static byte[] deflate(Deflater deflater, byte[] input) {
+		deflater.reset();
+		deflater.setInput(input);
+		deflater.finish();
+		byte[] output = new byte[Math.max(64, input.length / 4)];
+		int length = 0;
+		while (!deflater.finished()) {
+			if (length == output.length) {
+				output = Arrays.copyOf(output, output.length * 2);
+			}
+			length += deflater.deflate(output, length, output.length - length);
+		}
+		return Arrays.copyOf(output, length);
+	}
+
+	Path path() {
+		return path;
+	}
+
+	String name() {
+		return path.getFileName().toString();
+	}
+
+	int rows() {
+		return rows;
+	}
+
+	int minDay() {
+		return minDay;
+	}
+
+	int maxDay() {
+		return maxDay;
+	}
+
+	int minSaleId() {
+		return minSaleId;
+	}
+
+	int maxSaleId() {
+		return maxSaleId;
+	}
+
+	int products() {
+		return products;
+	}
+
+	long bytes() {
+		return buffer.capacity();
+	}
+
+	/**
+	 * Receives one product index entry.
+	 */
+	@FunctionalInterface
+	interface ProductUnitsConsumer {
+
+		void accept(int productId, long units);
+
+	}
+
+	/**
+	 * The inflated columns of one product block, one array element per sale.
+	 */
+	record Rows(int[] saleIds, int[] quantities, int[] epochDays) {
+
+		int size() {
+			return saleIds.length;
+		}
+
+	}
+
+}
@@ -0,0 +1,679 @@
+package com.sparksupport.product.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sparksupport.product.dto.ArchiveOperationResultDto;
+import com.sparksupport.product.dto.ArchiveSegmentDto;
+import com.sparksupport.product.dto.ArchiveStatusDto;
+import com.sparksupport.product.dto.ArchiveVerificationDto;
+import com.sparksupport.product.dto.SaleDto;
+import com.sparksupport.product.entity.ArchivedSegment;
+import com.sparksupport.product.exception.InvalidRequestException;
+import com.sparksupport.product.exception.OperationInProgressException;
+import com.sparksupport.product.repository.ArchivedSegmentRepository;
+import com.sparksupport.product.repository.ProductRepository;
+import com.sparksupport.product.repository.SaleRepository;
+import com.sparksupport.product.repository.SaleRow;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Service class for the cold tier of the sale table. Sales older than a
+ * configured age are moved into immutable {@link ArchiveSegment} files in a
+ * local directory, and revenue and sales-history queries combine them with the
+ * live rows.
+ * <p>
+ * Every segment has an {@link ArchivedSegment} row, inserted in the
+ * transaction that deletes its sales from the table and deleted in the one
+ * that inserts them back. A segment file is durable and open before its row
+ * commits and is dropped only after its row is gone, so the rows a transaction
+ * sees name exactly the segments it has to combine with the sale table; see
+ * {@link #getCommittedView()}. Such readers never wait for an archive
+ * operation. Scans that span several transactions instead hold archive
+ * operations off with {@link #readPinned(Function)}; they wait before opening
+ * any transaction, and an archive operation gives up rather than wait for
+ * them, so no thread waits for the lock while holding a connection. At
+ * startup, a file without a row is left over from an interrupted run and set
+ * aside, and a row without a file is reported as missing. Segments are opened
+ * with structural checks only; their checksums are verified in the background
+ * once the application is ready, so a large archive does not delay startup.
+ */
+@Service
+@Log4j2
+public class ArchiveService implements IArchiveService {
+
+	private static final String SEGMENT_SUFFIX = ".seg";
+
+	private static final String ORPHAN_SUFFIX = ".orphan";
+
+	private static final String CORRUPT_SUFFIX = ".corrupt";
+
+	private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+
+	private static final String INSERT_SALE = "insert into sale (id, product_id, quantity, sale_date) "
+			+ "values (?, ?, ?, ?)";
+
+	@Autowired
+	private SaleRepository saleRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ArchivedSegmentRepository archivedSegmentRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${sparksupport.archive.directory:archive}")
+	private String directoryName;
+
+	@Value("${sparksupport.archive.max-age-days:730}")
+	private int maxAgeDays;
+
+	@Value("${sparksupport.archive.segment-size:1000000}")
+	private int segmentSize;
+
+	@Value("${sparksupport.archive.batch-size:10000}")
+	private int batchSize;
+
+	@Value("${sparksupport.bulk.chunk-size:1000}")
+	private int chunkSize;
+
+	@Value("${sparksupport.archive.interval:0s}")
+	private Duration interval;
+
+	@Value("${sparksupport.archive.verify-on-open:true}")
+	private boolean verifyOnOpen;
+
+	/**
+	 * How long a restored segment stays readable for transactions that started
+	 * before the restore committed.
+	 */
+	@Value("${sparksupport.archive.retired-retention:1h}")
+	private Duration retiredRetention;
+
+	private Path directory;
+
+	/**
+	 * Held for writing by archive operations and for reading by pinned queries.
+	 * Operations only try it, so they never wait while holding a connection.
+	 */
+	private final ReentrantReadWriteLock gate = new ReentrantReadWriteLock();
+
+	private volatile ArchiveCatalog catalog = ArchiveCatalog.EMPTY;
+
+	/**
+	 * Restored segments by name, kept for transactions whose snapshot still has
+	 * their row.
+	 */
+	private final Map<String, RetiredSegment> retired = new ConcurrentHashMap<>();
+
+	private final List<String> corruptSegments = new CopyOnWriteArrayList<>();
+
+	private final List<String> missingSegments = new CopyOnWriteArrayList<>();
+
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Opens the recorded segments, sets aside files left over from interrupted
+	 * runs and schedules archive runs if an interval is configured.
+	 *
+	 * @throws IOException If the archive directory cannot be listed.
+	 */
+	@PostConstruct
+	void init() throws IOException {
+		directory = Paths.get(directoryName);
+		Set<String> recorded = new HashSet<>(archivedSegmentRepository.findAllNames());
+		List<ArchiveSegment> segments = new ArrayList<>();
+		if (Files.isDirectory(directory)) {
+			for (Path temporary : list(".tmp")) {
+				Files.delete(temporary);
+			}
+			for (Path path : list(SEGMENT_SUFFIX)) {
+				if (!recorded.remove(path.getFileName().toString())) {
+					setAside(path, ORPHAN_SUFFIX);
+					log.warn("Set aside archive segment {} whose archive run did not commit", path);
+					continue;
+				}
+				try {
+					segments.add(ArchiveSegment.open(path, false));
+				} catch (IOException e) {
+					quarantine(path, e);
+				}
+			}
+		}
+		if (!recorded.isEmpty()) {
+			missingSegments.addAll(recorded.stream().sorted().collect(Collectors.toList()));
+			log.error("Archive segments {} are recorded but their files are missing; their sales are not served",
+					missingSegments);
+		}
+		catalog = new ArchiveCatalog(segments);
+		log.info("Sales archive opened {} segments with {} sales", segments.size(), catalog.sales());
+		if (interval.toMillis() > 0) {
+			scheduler = Executors.newSingleThreadScheduledExecutor();
+			scheduler.scheduleWithFixedDelay(this::scheduledRun, interval.toMillis(), interval.toMillis(),
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Verifies the checksums of the opened segments on a background thread once
+	 * the application is ready, and quarantines the damaged ones.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	void verifyInBackground() {
+		if (!verifyOnOpen) {
+			return;
+		}
+		Thread thread = new Thread(() -> {
+			List<ArchiveSegment> segments = catalog.segments();
+			int corrupt = 0;
+			for (ArchiveSegment segment : segments) {
+				// Segments are immutable, so only removing a damaged one needs the gate
+				if (!segment.verify()) {
+					gate.writeLock().lock();
+					try {
+						if (catalog.segment(segment.name()) == segment) {
+							remove(segment);
+							quarantine(segment.path(), new IOException("Checksum mismatch"));
+							corrupt++;
+						}
+					} finally {
+						gate.writeLock().unlock();
+					}
+				}
+			}
+			log.info("Sales archive verified {} segments, {} damaged", segments.size(), corrupt);
+		}, "archive-verify");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops scheduled archive runs.
+	 */
+	@PreDestroy
+	void shutdown() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ArchiveView getCommittedView() {
+		return new CommittedView();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public <T> T readPinned(Function<ArchiveView, T> query) {
+		gate.readLock().lock();
+		try {
+			// A segment whose archive transaction ended in doubt is open but not recorded
+			Set<String> names = new HashSet<>(archivedSegmentRepository.findAllNames());
+			return query.apply(select(catalog, names));
+		} finally {
+			gate.readLock().unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ArchiveOperationResultDto archiveSales() {
+		if (!gate.writeLock().tryLock()) {
+			throw new OperationInProgressException("An archive operation or a sales scan is already running");
+		}
+		try {
+			Files.createDirectories(directory);
+			LocalDate cutoff = cutoff();
+			List<String> written = new ArrayList<>();
+			long moved = 0;
+			List<ArchivedSale> buffered = new ArrayList<>();
+			LocalDate lastDate = MIN_DATE;
+			int lastId = 0;
+			List<SaleRow> rows;
+			do {
+				// Date order keeps the date ranges of consecutive segments apart for pruning
+				rows = saleRepository.findRowsBefore(cutoff, lastDate, lastId, PageRequest.of(0, batchSize));
+				for (SaleRow row : rows) {
+					lastDate = row.getSaleDate();
+					lastId = row.getId();
+					if (row.getProductId() != null) {
+						buffered.add(new ArchivedSale(row.getId(), row.getProductId(), row.getQuantity(),
+								(int) row.getSaleDate().toEpochDay()));
+					}
+				}
+				boolean last = rows.size() < batchSize;
+				if (buffered.size() >= segmentSize || (last && !buffered.isEmpty())) {
+					String name = writeSegment(buffered.toArray(new ArchivedSale[0]));
+					if (name == null) {
+						log.warn("Stopping archive run: sales were deleted while their segment was written, "
+								+ "the next run archives the rest");
+						break;
+					}
+					written.add(name);
+					moved += buffered.size();
+					buffered.clear();
+				}
+			} while (rows.size() == batchSize);
+
+			log.info("Archived {} sales before {} into {} segments", moved, cutoff, written.size());
+			return new ArchiveOperationResultDto(written, moved, 0);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error writing archive segment", e);
+		} finally {
+			gate.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ArchiveOperationResultDto restoreSales(LocalDate from, LocalDate to) {
+		if (from.isAfter(to)) {
+			throw new InvalidRequestException("Restore range must not end before it starts");
+		}
+		if (!gate.writeLock().tryLock()) {
+			throw new OperationInProgressException("An archive operation or a sales scan is already running");
+		}
+		try {
+			// A segment whose archive transaction ended in doubt is open but not recorded
+			Set<String> recorded = new HashSet<>(archivedSegmentRepository.findAllNames());
+			List<String> restored = new ArrayList<>();
+			long moved = 0;
+			long dropped = 0;
+			for (ArchiveSegment segment : catalog.segments()) {
+				if (recorded.contains(segment.name()) && segment.maxDay() >= from.toEpochDay()
+						&& segment.minDay() <= to.toEpochDay()) {
+					RestoredSales sales = restoreSegment(segment);
+					moved += sales.inserted();
+					dropped += sales.dropped();
+					restored.add(segment.name());
+				}
+			}
+			if (dropped > 0) {
+				log.warn("Dropped {} archived sales of deleted products while restoring", dropped);
+			}
+			log.info("Restored {} sales from {} segments", moved, restored.size());
+			return new ArchiveOperationResultDto(restored, moved, dropped);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error restoring archive segment", e);
+		} finally {
+			gate.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ArchiveVerificationDto verify() {
+		if (!gate.writeLock().tryLock()) {
+			throw new OperationInProgressException("An archive operation or a sales scan is already running");
+		}
+		try {
+			List<ArchiveSegment> segments = catalog.segments();
+			List<String> corrupt = new ArrayList<>();
+			for (ArchiveSegment segment : segments) {
+				if (!segment.verify()) {
+					corrupt.add(segment.name());
+					remove(segment);
+					quarantine(segment.path(), new IOException("Checksum mismatch"));
+				}
+			}
+			return new ArchiveVerificationDto(segments.size(), corrupt);
+		} finally {
+			gate.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ArchiveStatusDto getStatus() {
+		ArchiveCatalog current = catalog;
+		List<ArchiveSegmentDto> segments = current.segments().stream()
+				.map(segment -> new ArchiveSegmentDto(segment.name(), LocalDate.ofEpochDay(segment.minDay()),
+						LocalDate.ofEpochDay(segment.maxDay()), segment.rows(), segment.products(),
+						segment.bytes()))
+				.collect(Collectors.toList());
+		return new ArchiveStatusDto(cutoff(), current.sales(), current.bytes(), segments,
+				List.copyOf(corruptSegments), List.copyOf(missingSegments));
+	}
+
+	/**
+	 * Writes one segment and moves its sales out of the sale table.
+	 *
+	 * @param sales The sales to archive.
+	 * @return The name of the new segment, or null if some of its sales were
+	 *         deleted meanwhile and nothing was moved.
+	 */
+	private String writeSegment(ArchivedSale[] sales) throws IOException {
+		int minDay = Integer.MAX_VALUE;
+		int maxDay = Integer.MIN_VALUE;
+		int minSaleId = Integer.MAX_VALUE;
+		for (ArchivedSale sale : sales) {
+			minDay = Math.min(minDay, sale.epochDay());
+			maxDay = Math.max(maxDay, sale.epochDay());
+			minSaleId = Math.min(minSaleId, sale.saleId());
+		}
+		String name = "sales-" + LocalDate.ofEpochDay(minDay) + "_" + LocalDate.ofEpochDay(maxDay) + "_"
+				+ minSaleId + SEGMENT_SUFFIX;
+		Path path = directory.resolve(name);
+		ArchiveSegment.write(path, sales);
+		ArchiveSegment segment;
+		try {
+			// Read back before the table rows are gone
+			segment = ArchiveSegment.open(path, true);
+		} catch (IOException e) {
+			Files.deleteIfExists(path);
+			throw e;
+		}
+
+		List<Integer> ids = new ArrayList<>(sales.length);
+		for (ArchivedSale sale : sales) {
+			ids.add(sale.saleId());
+		}
+		// Opened before the commit, so every transaction that sees the row finds the segment
+		add(segment);
+		boolean committed;
+		try {
+			committed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+				int deleted = 0;
+				for (int from = 0; from < ids.size(); from += chunkSize) {
+					deleted += saleRepository.deleteByIds(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+				}
+				if (deleted != ids.size()) {
+					status.setRollbackOnly();
+					return false;
+				}
+				archivedSegmentRepository.save(new ArchivedSegment(name, sales.length));
+				return true;
+			}));
+		} catch (RuntimeException e) {
+			if (!isRecorded(name, e)) {
+				remove(segment);
+				Files.delete(path);
+			}
+			throw e;
+		}
+		if (!committed) {
+			remove(segment);
+			Files.delete(path);
+		}
+		return committed ? name : null;
+	}
+
+	/**
+	 * Moves the sales of one segment back into the sale table and deletes it.
+	 *
+	 * @param segment The segment to restore.
+	 * @return The numbers of sales inserted and dropped.
+	 */
+	private RestoredSales restoreSegment(ArchiveSegment segment) throws IOException {
+		List<ArchivedSale> sales = new ArrayList<>(segment.rows());
+		segment.scan(Integer.MIN_VALUE, Integer.MAX_VALUE, null, (saleId, productId, quantity,
+				epochDay) -> sales.add(new ArchivedSale(saleId, productId, quantity, epochDay)));
+		List<Integer> productIds = sales.stream().map(ArchivedSale::productId).distinct()
+				.collect(Collectors.toList());
+
+		List<ArchivedSale> insertable = new ArrayList<>(sales.size());
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				// Locked products cannot be deleted before the restored sales referencing them commit
+				Set<Integer> liveProducts = new HashSet<>();
+				for (int from = 0; from < productIds.size(); from += chunkSize) {
+					liveProducts.addAll(productRepository
+							.lockExistingIds(productIds.subList(from, Math.min(from + chunkSize, productIds.size()))));
+				}
+				insertable.clear();
+				for (ArchivedSale sale : sales) {
+					if (liveProducts.contains(sale.productId())) {
+						insertable.add(sale);
+					}
+				}
+				jdbcTemplate.batchUpdate(INSERT_SALE, insertable, batchSize, (statement, sale) -> {
+					statement.setInt(1, sale.saleId());
+					statement.setInt(2, sale.productId());
+					statement.setInt(3, sale.quantity());
+					statement.setObject(4, LocalDate.ofEpochDay(sale.epochDay()));
+				});
+				archivedSegmentRepository.deleteById(segment.name());
+			});
+		} catch (RuntimeException e) {
+			if (isRecorded(segment.name(), e)) {
+				throw e;
+			}
+			log.warn("Restore transaction of " + segment.name() + " failed after committing", e);
+		}
+		retire(segment);
+		Files.delete(segment.path());
+		ArchiveSegment.forceDirectory(directory);
+		return new RestoredSales(insertable.size(), sales.size() - insertable.size());
+	}
+
+	/**
+	 * Tells whether a segment row exists after the transaction inserting or
+	 * deleting it failed, since the commit may have succeeded even so, as when the
+	 * connection drops during it. A segment left open without its row is never
+	 * served, and the next startup sets its file aside.
+	 *
+	 * @param name    The name of the segment.
+	 * @param failure The failure of the transaction, rethrown if the row cannot be
+	 *                read either.
+	 * @return Whether the segment row exists.
+	 */
+	private boolean isRecorded(String name, RuntimeException failure) {
+		try {
+			return archivedSegmentRepository.existsById(name);
+		} catch (RuntimeException e) {
+			failure.addSuppressed(e);
+			throw failure;
+		}
+	}
+
+	/**
+	 * Resolves the segments recorded in the snapshot of the current transaction.
+	 * A segment is opened before its row commits and kept for a while after its
+	 * row is deleted, so every visible row has its segment, unless the file is
+	 * missing or damaged.
+	 */
+	private ArchiveCatalog resolveCommitted() {
+		ArchiveCatalog current = catalog;
+		if (current.segments().isEmpty() && retired.isEmpty()) {
+			// No segment was open when the snapshot was taken, so it has no rows either
+			return current;
+		}
+		return select(current, new HashSet<>(archivedSegmentRepository.findAllNames()));
+	}
+
+	/**
+	 * @param current The current catalog.
+	 * @param names   The names of the recorded segments.
+	 * @return The catalog of the recorded segments that are open or retired.
+	 */
+	private ArchiveCatalog select(ArchiveCatalog current, Set<String> names) {
+		if (names.equals(current.names())) {
+			return current;
+		}
+		List<ArchiveSegment> segments = new ArrayList<>();
+		for (String name : names) {
+			ArchiveSegment segment = current.segment(name);
+			if (segment == null) {
+				RetiredSegment restored = retired.get(name);
+				segment = restored != null ? restored.segment() : null;
+			}
+			if (segment != null) {
+				segments.add(segment);
+			}
+		}
+		return new ArchiveCatalog(segments);
+	}
+
+	private synchronized void add(ArchiveSegment segment) {
+		catalog = catalog.with(segment);
+	}
+
+	private synchronized void remove(ArchiveSegment segment) {
+		catalog = catalog.without(segment);
+	}
+
+	/**
+	 * Removes a restored segment from the catalog while keeping it readable for
+	 * transactions that started before the restore, and drops segments retired
+	 * long ago.
+	 */
+	private synchronized void retire(ArchiveSegment segment) {
+		Instant now = Instant.now();
+		retired.values().removeIf(restored -> restored.retiredAt().plus(retiredRetention).isBefore(now));
+		retired.put(segment.name(), new RetiredSegment(segment, now));
+		catalog = catalog.without(segment);
+	}
+
+	/**
+	 * Moves a damaged file aside so that it is neither served nor reopened.
+	 */
+	private void quarantine(Path path, IOException cause) {
+		log.error("Quarantining damaged archive segment " + path, cause);
+		setAside(path, CORRUPT_SUFFIX);
+		corruptSegments.add(path.getFileName().toString());
+	}
+
+	private void setAside(Path path, String suffix) {
+		try {
+			Files.move(path, path.resolveSibling(path.getFileName() + suffix), StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.error("Could not set aside archive segment " + path, e);
+		}
+	}
+
+	private void scheduledRun() {
+		try {
+			archiveSales();
+		} catch (OperationInProgressException e) {
+			log.info("Skipping scheduled archive run: {}", e.getMessage());
+		} catch (RuntimeException e) {
+			log.error("Scheduled archive run failed", e);
+		}
+	}
+
+	private List<Path> list(String suffix) throws IOException {
+		List<Path> paths = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + suffix)) {
+			stream.forEach(paths::add);
+		}
+		Collections.sort(paths);
+		return paths;
+	}
+
+	private LocalDate cutoff() {
+		return LocalDate.now().minusDays(maxAgeDays);
+	}
+
+	/**
+	 * A view resolved against the snapshot of the current transaction on first
+	 * use.
+	 */
+	private final class CommittedView implements ArchiveView {
+
+		private ArchiveCatalog resolved;
+
+		private ArchiveCatalog resolved() {
+			if (resolved == null) {
+				resolved = resolveCommitted();
+			}
+			return resolved;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public long getUnits(int productId) {
+			return resolved().getUnits(productId);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public Map<Integer, Long> getUnitsByProduct() {
+			return resolved().getUnitsByProduct();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public Map<Integer, List<SaleDto>> getSales(Collection<Integer> productIds) {
+			return resolved().getSales(productIds);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public void forEachSale(LocalDate from, LocalDate to, Set<Integer> productIds, SaleConsumer consumer) {
+			resolved().forEachSale(from, to, productIds, consumer);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public List<ArchiveView> split() {
+			return resolved().split();
+		}
+
+	}
+
+	/**
+	 * A restored segment and when it was removed from the catalog.
+	 */
+	private record RetiredSegment(ArchiveSegment segment, Instant retiredAt) {
+	}
+
+	/**
+	 * The outcome of restoring one segment.
+	 */
+	private record RestoredSales(int inserted, int dropped) {
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.sparksupport.product.archive;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.sparksupport.product.dto.SaleDto;
+
+/**
+ * A fixed set of archive segments that a query combines with the live sale
+ * table. Obtained from {@link IArchiveService}, which decides which segments
+ * match the rows the query sees.
+ */
+public interface ArchiveView {
+
+	/**
+	 * @param productId The ID of the product.
+	 * @return The units of the product sold in archived sales.
+	 */
+	public long getUnits(int productId);
+
+	/**
+	 * @return The units sold in archived sales per product ID.
+	 */
+	public Map<Integer, Long> getUnitsByProduct();
+
+	/**
+	 * Retrieves the archived sales of several products, inflating only their
+	 * blocks of the segments whose index contains them.
+	 *
+	 * @param productIds The IDs of the products.
+	 * @return The archived sales per product ID, oldest first; products without
+	 *         archived sales are absent.
+	 */
+	public Map<Integer, List<SaleDto>> getSales(Collection<Integer> productIds);
+
+	/**
+	 * Calls the consumer with every archived sale of the selected products within
+	 * a date range. Segments outside the range are skipped without inflating
+	 * them.
+	 *
+	 * @param from       The earliest sale date to include, or null for no limit.
+	 * @param to         The latest sale date to include, or null for no limit.
+	 * @param productIds The IDs of the products to include, or null for all.
+	 * @param consumer   Receives the sales, in no particular order.
+	 */
+	public void forEachSale(LocalDate from, LocalDate to, Set<Integer> productIds, SaleConsumer consumer);
+
+	/**
+	 * @return One view per segment of this view, for scanning segments in
+	 *         parallel.
+	 */
+	public List<ArchiveView> split();
+
+	/**
+	 * Receives one archived sale.
+	 */
+	@FunctionalInterface
+	public interface SaleConsumer {
+
+		/**
+		 * @param saleId    The ID the sale had in the sale table.
+		 * @param productId The ID of the product sold.
+		 * @param quantity  The quantity sold.
+		 * @param epochDay  The sale date as days since 1970-01-01.
+		 */
+		void accept(int saleId, int productId, int quantity, int epochDay);
+
+	}
+
+}
@@ -0,0 +1,12 @@
+package com.sparksupport.product.archive;
+
+/**
+ * A sale as stored in an archive segment.
+ *
+ * @param saleId    The ID the sale had in the sale table.
+ * @param productId The ID of the product sold.
+ * @param quantity  The quantity sold.
+ * @param epochDay  The sale date as days since 1970-01-01.
+ */
+record ArchivedSale(int saleId, int productId, int quantity, int epochDay) {
+}
@@ -0,0 +1,81 @@
+package com.sparksupport.product.archive;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+
+import com.sparksupport.product.dto.ArchiveOperationResultDto;
+import com.sparksupport.product.dto.ArchiveStatusDto;
+import com.sparksupport.product.dto.ArchiveVerificationDto;
+import com.sparksupport.product.exception.InvalidRequestException;
+import com.sparksupport.product.exception.OperationInProgressException;
+
+public interface IArchiveService {
+
+	/**
+	 * Returns the archive as seen by the current transaction: exactly the
+	 * segments whose sales that transaction no longer sees in the sale table,
+	 * including segments restored since it started. Takes no lock, so it never
+	 * waits for an archive operation. The view must be used inside a
+	 * repeatable-read transaction and only after it has read from the database,
+	 * so that its snapshot is established.
+	 *
+	 * @return The ArchiveView matching the current transaction.
+	 */
+	public ArchiveView getCommittedView();
+
+	/**
+	 * Runs a query that reads the sale table in several transactions, such as a
+	 * scan in pages, with archive operations held off until it returns, so that
+	 * no sale moves between the table and the archive meanwhile. Waits for a
+	 * running archive operation to finish first. Must not be called inside a
+	 * transaction, since an archive operation needs connections to finish.
+	 *
+	 * @param <T>   The type of the query result.
+	 * @param query The query, given the ArchiveView of the recorded segments.
+	 * @return The result of the query.
+	 */
+	public <T> T readPinned(Function<ArchiveView, T> query);
+
+	/**
+	 * Moves sales older than the configured age from the sale table into new
+	 * archive segments.
+	 *
+	 * @return The ArchiveOperationResultDto with the segments written.
+	 * @throws OperationInProgressException If another archive operation or a
+	 *                                      pinned query is running.
+	 */
+	public ArchiveOperationResultDto archiveSales();
+
+	/**
+	 * Moves the sales of every segment overlapping a date range back into the
+	 * sale table with their original IDs. Sales of deleted products cannot be
+	 * restored; they are dropped with the segment and counted in the result.
+	 * Restored sales older than the configured age are archived again by the
+	 * next run unless the age is raised first.
+	 *
+	 * @param from The earliest sale date of the range.
+	 * @param to   The latest sale date of the range.
+	 * @return The ArchiveOperationResultDto with the segments restored and the
+	 *         sales dropped.
+	 * @throws InvalidRequestException      If the range is reversed.
+	 * @throws OperationInProgressException If another archive operation or a
+	 *                                      pinned query is running.
+	 */
+	public ArchiveOperationResultDto restoreSales(LocalDate from, LocalDate to);
+
+	/**
+	 * Recomputes the checksum of every segment and quarantines those that do not
+	 * match.
+	 *
+	 * @return The ArchiveVerificationDto of the check.
+	 * @throws OperationInProgressException If another archive operation or a
+	 *                                      pinned query is running.
+	 */
+	public ArchiveVerificationDto verify();
+
+	/**
+	 * @return The ArchiveStatusDto of the archive.
+	 */
+	public ArchiveStatusDto getStatus();
+
+}
@@ -0,0 +1,78 @@
+package com.sparksupport.product.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.sparksupport.product.admission.PriorityClass;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for adaptive admission control, bound from
+ * {@code sparksupport.admission}.
+ */
+@Data
+@ConfigurationProperties(prefix = "sparksupport.admission")
+public class AdmissionProperties {
+
+	/**
+	 * Whether requests are subject to admission control.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * The initial concurrency limit of each endpoint.
+	 */
+	private int initialLimit = 20;
+
+	/**
+	 * The lowest concurrency limit of each endpoint.
+	 */
+	private int minLimit = 1;
+
+	/**
+	 * The highest concurrency limit of each endpoint.
+	 */
+	private int maxLimit = 200;
+
+	/**
+	 * The initial concurrency limit across all endpoints.
+	 */
+	private int globalInitialLimit = 50;
+
+	/**
+	 * The lowest concurrency limit across all endpoints.
+	 */
+	private int globalMinLimit = 4;
+
+	/**
+	 * The highest concurrency limit across all endpoints.
+	 */
+	private int globalMaxLimit = 400;
+
+	/**
+	 * The multiple of the baseline latency above which a request counts as
+	 * congested.
+	 */
+	private double latencyTolerance = 2.0;
+
+	/**
+	 * The factor a limit is multiplied by on congestion.
+	 */
+	private double backoffRatio = 0.9;
+
+	/**
+	 * The delay in seconds sent in the Retry-After header of rejected requests.
+	 */
+	private long retryAfterSeconds = 1;
+
+	/**
+	 * Priority classes by endpoint, keyed by HTTP method and path pattern such as
+	 * {@code GET /product/{id}}. GET endpoints default to NORMAL and all other
+	 * methods to CRITICAL.
+	 */
+	private Map<String, PriorityClass> priorities = new HashMap<>();
+
+}
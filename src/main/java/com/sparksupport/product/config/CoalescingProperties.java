@@ -0,0 +1,65 @@
+package com.sparksupport.product.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for request coalescing, bound from
+ * {@code sparksupport.coalescing}.
+ */
+@Data
+@ConfigurationProperties(prefix = "sparksupport.coalescing")
+public class CoalescingProperties {
+
+	/**
+	 * Whether identical concurrent calls share one execution.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * How long a coalesced call waits for the shared execution before failing,
+	 * unless its operation sets its own timeout.
+	 */
+	private Duration timeout = Duration.ofSeconds(5);
+
+	/**
+	 * The settings of each operation, keyed by operation name such as
+	 * {@code product}, {@code revenue-by-product} and {@code total-revenue}.
+	 * Operations not listed are never coalesced.
+	 */
+	private Map<String, Operation> operations = new HashMap<>(Map.of("product", new Operation(),
+			"revenue-by-product", new Operation(), "total-revenue", new Operation()));
+
+	/**
+	 * Coalescing settings of a single operation.
+	 */
+	@Data
+	public static class Operation {
+
+		/**
+		 * Whether identical concurrent calls of the operation share one execution.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * How long a coalesced call of the operation waits for the shared
+		 * execution, or null for the default timeout.
+		 */
+		private Duration timeout;
+
+		/**
+		 * The keys to coalesce, such as the IDs of hot products, or empty to
+		 * coalesce every key of the operation.
+		 */
+		private Set<String> keys = new HashSet<>();
+
+	}
+
+}
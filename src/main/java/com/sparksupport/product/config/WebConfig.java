@@ -0,0 +1,30 @@
+package com.sparksupport.product.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.sparksupport.product.admission.AdmissionInterceptor;
+
+/**
+ * Web MVC configuration class. Registers the interceptors applied to controller
+ * requests.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+	@Autowired
+	private AdmissionInterceptor admissionInterceptor;
+
+	/**
+	 * Registers the admission control interceptor for all requests.
+	 *
+	 * @param registry InterceptorRegistry to add the interceptor to
+	 */
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(admissionInterceptor);
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.sparksupport.product.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sparksupport.product.admission.AdaptiveLimiter;
+import com.sparksupport.product.admission.AdmissionControl;
+import com.sparksupport.product.admission.PriorityClass;
+import com.sparksupport.product.admission.PriorityLimiter;
+import com.sparksupport.product.dto.AdmissionStatusDto;
+
+/**
+ * Controller class exposing the state of adaptive admission control.
+ */
+@RestController
+public class AdmissionController {
+
+	@Autowired
+	private AdmissionControl admissionControl;
+
+	/**
+	 * Retrieves the current limits, in-flight requests and rejection counts of the
+	 * global limit of each priority class and of every endpoint seen so far.
+	 *
+	 * @return List of AdmissionStatusDto, global limits first
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping("/admission")
+	public ResponseEntity<List<AdmissionStatusDto>> getAdmissionStatus() {
+		List<AdmissionStatusDto> status = new ArrayList<>();
+		PriorityLimiter global = admissionControl.getGlobalLimiter();
+		for (PriorityClass priority : PriorityClass.values()) {
+			status.add(new AdmissionStatusDto("global", priority.name(), global.getLimit(priority),
+					global.getInFlight(), 0.0, global.getAccepted(priority), global.getRejected(priority)));
+		}
+
+		Map<String, AdaptiveLimiter> endpoints = new TreeMap<>(admissionControl.getEndpointLimiters());
+		endpoints.forEach((endpoint, limiter) -> status.add(toStatus(endpoint,
+				admissionControl.priorityOf(endpoint.substring(0, endpoint.indexOf(' ')), endpoint).name(), limiter)));
+		return new ResponseEntity<>(status, HttpStatus.OK);
+	}
+
+	private AdmissionStatusDto toStatus(String endpoint, String priority, AdaptiveLimiter limiter) {
+		return new AdmissionStatusDto(endpoint, priority, limiter.getLimit(), limiter.getInFlight(),
+				limiter.getBaselineMillis(), limiter.getAccepted(), limiter.getRejected());
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.sparksupport.product.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sparksupport.product.analytics.IAnalyticsService;
+import com.sparksupport.product.dto.AnalyticsStatusDto;
+import com.sparksupport.product.dto.DailyRevenueDto;
+import com.sparksupport.product.dto.ProductRevenueDto;
+import com.sparksupport.product.dto.RevenueSummaryDto;
+import com.sparksupport.product.service.LeaderboardMetric;
+
+/**
+ * Controller class for revenue analytics answered by the in-memory columnar
+ * engine. Only registered when {@code sparksupport.analytics.enabled} is set.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "sparksupport.analytics", name = "enabled", havingValue = "true")
+public class AnalyticsController {
+
+	@Autowired
+	private IAnalyticsService analyticsService;
+
+	/**
+	 * Calculates the units sold and revenue over a date range.
+	 *
+	 * @param from The earliest sale date to include, unbounded if omitted
+	 * @param to   The latest sale date to include, unbounded if omitted
+	 * @return RevenueSummaryDto of the range
+	 */
+	@GetMapping("/analytics/revenue")
+	public ResponseEntity<RevenueSummaryDto> getRevenue(
+			@RequestParam(name = "from", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+			@RequestParam(name = "to", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to) {
+
+		return new ResponseEntity<>(analyticsService.getRevenue(from, to), HttpStatus.OK);
+	}
+
+	/**
+	 * Retrieves the best-selling products over a date range.
+	 *
+	 * @param from   The earliest sale date to include, unbounded if omitted
+	 * @param to     The latest sale date to include, unbounded if omitted
+	 * @param metric The metric to rank by: revenue or units
+	 * @param limit  The maximum number of products to return
+	 * @return List of ProductRevenueDto, best first
+	 */
+	@GetMapping("/analytics/revenue/products")
+	public ResponseEntity<List<ProductRevenueDto>> getTopProducts(
+			@RequestParam(name = "from", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+			@RequestParam(name = "to", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+			@RequestParam(name = "metric", defaultValue = "revenue") String metric,
+			@RequestParam(name = "limit", defaultValue = "50") int limit) {
+
+		List<ProductRevenueDto> products = analyticsService.getTopProducts(from, to, LeaderboardMetric.from(metric),
+				limit);
+		return new ResponseEntity<>(products, HttpStatus.OK);
+	}
+
+	/**
+	 * Calculates the units sold and revenue per day.
+	 *
+	 * @param from      The first day
+	 * @param to        The last day
+	 * @param productId The product to include, all products if omitted
+	 * @return List of DailyRevenueDto, one per day
+	 */
+	@GetMapping("/analytics/revenue/daily")
+	public ResponseEntity<List<DailyRevenueDto>> getDailyRevenue(
+			@RequestParam(name = "from") @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+			@RequestParam(name = "to") @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+			@RequestParam(name = "productId", required = false) Integer productId) {
+
+		return new ResponseEntity<>(analyticsService.getDailyRevenue(from, to, productId), HttpStatus.OK);
+	}
+
+	/**
+	 * Retrieves the state of the analytics engine.
+	 *
+	 * @return AnalyticsStatusDto of the engine
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping("/analytics/status")
+	public ResponseEntity<AnalyticsStatusDto> getStatus() {
+		return new ResponseEntity<>(analyticsService.getStatus(), HttpStatus.OK);
+	}
+
+}
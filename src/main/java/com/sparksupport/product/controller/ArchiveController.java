@@ -0,0 +1,81 @@
+package com.sparksupport.product.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sparksupport.product.archive.IArchiveService;
+import com.sparksupport.product.dto.ArchiveOperationResultDto;
+import com.sparksupport.product.dto.ArchiveStatusDto;
+import com.sparksupport.product.dto.ArchiveVerificationDto;
+
+/**
+ * Controller class for administering the archive of old sales.
+ */
+@RestController
+public class ArchiveController {
+
+	@Autowired
+	private IArchiveService archiveService;
+
+	/**
+	 * Retrieves the segments of the archive.
+	 *
+	 * @return ArchiveStatusDto of the archive
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping("/archive")
+	public ResponseEntity<ArchiveStatusDto> getStatus() {
+		return new ResponseEntity<>(archiveService.getStatus(), HttpStatus.OK);
+	}
+
+	/**
+	 * Moves sales older than the configured age into the archive.
+	 *
+	 * @return ArchiveOperationResultDto with the segments written
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping("/archive/run")
+	public ResponseEntity<ArchiveOperationResultDto> archiveSales() {
+		return new ResponseEntity<>(archiveService.archiveSales(), HttpStatus.OK);
+	}
+
+	/**
+	 * Moves the archived sales of every segment overlapping a date range back into
+	 * the sale table.
+	 *
+	 * @param from The earliest sale date of the range
+	 * @param to   The latest sale date of the range
+	 * @return ArchiveOperationResultDto with the segments restored and the sales
+	 *         of deleted products dropped
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping("/archive/restore")
+	public ResponseEntity<ArchiveOperationResultDto> restoreSales(
+			@RequestParam(name = "from") @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+			@RequestParam(name = "to") @DateTimeFormat(iso = ISO.DATE) LocalDate to) {
+
+		return new ResponseEntity<>(archiveService.restoreSales(from, to), HttpStatus.OK);
+	}
+
+	/**
+	 * Checks the checksum of every segment and quarantines damaged ones.
+	 *
+	 * @return ArchiveVerificationDto of the check
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping("/archive/verify")
+	public ResponseEntity<ArchiveVerificationDto> verify() {
+		return new ResponseEntity<>(archiveService.verify(), HttpStatus.OK);
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.sparksupport.product.controller;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.sparksupport.product.exception.InvalidRequestException;
+import com.sparksupport.product.feed.ChangeFeed;
+import com.sparksupport.product.feed.DropPolicy;
+
+/**
+ * Controller class streaming product and sale changes as server-sent events.
+ */
+@RestController
+@Validated
+public class ChangeFeedController {
+
+	@Autowired
+	private ChangeFeed changeFeed;
+
+	/**
+	 * Streams changes committed after the given event ID. Each event carries its
+	 * {@code <epoch>-<offset>} ID, so a reconnecting client resumes through the
+	 * standard Last-Event-ID header. An ID from before a restart yields a reset
+	 * event.
+	 *
+	 * @param after       The last event ID the client has seen; omit to receive
+	 *                    only new changes
+	 * @param lastEventId The Last-Event-ID header, used when after is omitted
+	 * @param policy      What to do when the client falls behind: disconnect,
+	 *                    drop_oldest or drop_newest
+	 * @return SseEmitter streaming ChangeDto events
+	 */
+	@GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamChanges(@RequestParam(name = "after", required = false) String after,
+			@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+			@RequestParam(name = "policy", defaultValue = "disconnect") String policy) {
+
+		DropPolicy dropPolicy;
+		try {
+			dropPolicy = DropPolicy.valueOf(policy.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new InvalidRequestException("Unknown drop policy: " + policy);
+		}
+		return changeFeed.subscribe(after != null ? after : lastEventId, dropPolicy);
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.sparksupport.product.controller;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sparksupport.product.dto.CoalescingStatsDto;
+import com.sparksupport.product.service.SingleFlight;
+
+/**
+ * Controller class exposing request coalescing counters.
+ */
+@RestController
+public class CoalescingController {
+
+	@Autowired
+	private SingleFlight singleFlight;
+
+	/**
+	 * Retrieves how many calls of each operation executed, were coalesced or timed
+	 * out.
+	 *
+	 * @return List of CoalescingStatsDto ordered by operation
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping("/coalescing")
+	public ResponseEntity<List<CoalescingStatsDto>> getCoalescingStats() {
+		List<CoalescingStatsDto> stats = singleFlight.getCounters().entrySet().stream()
+				.map(entry -> new CoalescingStatsDto(entry.getKey(), entry.getValue().getExecutions(),
+						entry.getValue().getCoalesced(), entry.getValue().getTimeouts()))
+				.sorted((a, b) -> a.getOperation().compareTo(b.getOperation())).collect(Collectors.toList());
+		return new ResponseEntity<>(stats, HttpStatus.OK);
+	}
+
+}
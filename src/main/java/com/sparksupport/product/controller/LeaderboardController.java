@@ -0,0 +1,61 @@
+package com.sparksupport.product.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sparksupport.product.dto.LeaderboardEntryDto;
+import com.sparksupport.product.service.ILeaderboardService;
+import com.sparksupport.product.service.LeaderboardMetric;
+import com.sparksupport.product.service.LeaderboardWindow;
+
+/**
+ * Controller class for the best-selling products leaderboard.
+ */
+@RestController
+@Validated
+public class LeaderboardController {
+
+	@Autowired
+	private ILeaderboardService leaderboardService;
+
+	/**
+	 * Retrieves the best-selling products within a time window.
+	 *
+	 * @param metric The metric to rank by: revenue or units
+	 * @param window The time window: day, week, month or all
+	 * @param limit  The maximum number of products to return
+	 * @return List of LeaderboardEntryDto, best first
+	 */
+	@GetMapping("/leaderboard")
+	public ResponseEntity<List<LeaderboardEntryDto>> getTopProducts(
+			@RequestParam(name = "metric", defaultValue = "revenue") String metric,
+			@RequestParam(name = "window", defaultValue = "week") String window,
+			@RequestParam(name = "limit", defaultValue = "50") int limit) {
+
+		List<LeaderboardEntryDto> entries = leaderboardService.getTopProducts(LeaderboardMetric.from(metric),
+				LeaderboardWindow.from(window), limit);
+		return new ResponseEntity<>(entries, HttpStatus.OK);
+	}
+
+	/**
+	 * Rebuilds the leaderboard from the product and sale tables.
+	 *
+	 * @return A message indicating the leaderboard was reloaded
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping("/leaderboard/reload")
+	public ResponseEntity<String> reload() {
+		leaderboardService.reload();
+		return new ResponseEntity<>("Leaderboard reloaded", HttpStatus.OK);
+	}
+
+}
@@ -1,5 +1,7 @@
 package com.sparksupport.product.controller;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,9 +15,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.sparksupport.product.dto.BulkOperationResultDto;
+import com.sparksupport.product.dto.BulkUpdateDto;
+import com.sparksupport.product.dto.ProductBatchDto;
 import com.sparksupport.product.dto.ProductDto;
+import com.sparksupport.product.dto.ProductSelectionDto;
 import com.sparksupport.product.entity.Product;
 import com.sparksupport.product.service.IProductService;
 
@@ -70,6 +77,31 @@ public class ProductController {
 		return new ResponseEntity<>(productDto, HttpStatus.OK);
 	}
 
+	/**
+	 * Retrieves several products by their IDs in a single request.
+	 *
+	 * @param ids The comma-separated IDs of the products to retrieve
+	 * @return ProductBatchDto with the found products and the missing IDs
+	 */
+	@GetMapping("/products/batch")
+	public ResponseEntity<ProductBatchDto> getProductsByIds(@RequestParam("ids") List<Integer> ids) {
+		ProductBatchDto products = productService.getProductsByIds(ids);
+		return new ResponseEntity<>(products, HttpStatus.OK);
+	}
+
+	/**
+	 * Retrieves several products by their IDs given in the request body, for ID
+	 * lists too long for a query string.
+	 *
+	 * @param ids The IDs of the products to retrieve
+	 * @return ProductBatchDto with the found products and the missing IDs
+	 */
+	@PostMapping("/products/batch")
+	public ResponseEntity<ProductBatchDto> getProductsByIdsInBody(@RequestBody List<Integer> ids) {
+		ProductBatchDto products = productService.getProductsByIds(ids);
+		return new ResponseEntity<>(products, HttpStatus.OK);
+	}
+
 	/**
 	 * Updates a product with the specified ID.
 	 *
@@ -97,6 +129,32 @@ public class ProductController {
 		return new ResponseEntity<>(result, HttpStatus.NO_CONTENT);
 	}
 
+	/**
+	 * Deletes all selected products and their sales.
+	 *
+	 * @param selection The products to delete
+	 * @return BulkOperationResultDto with the affected row counts and skipped IDs
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping("/bulk-delete")
+	public ResponseEntity<BulkOperationResultDto> bulkDeleteProducts(@RequestBody ProductSelectionDto selection) {
+		BulkOperationResultDto result = productService.bulkDeleteProducts(selection);
+		return new ResponseEntity<>(result, HttpStatus.OK);
+	}
+
+	/**
+	 * Updates the price and/or quantity of all selected products.
+	 *
+	 * @param update The selection and the changes to apply
+	 * @return BulkOperationResultDto with the affected row counts and skipped IDs
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping("/bulk-update")
+	public ResponseEntity<BulkOperationResultDto> bulkUpdateProducts(@RequestBody BulkUpdateDto update) {
+		BulkOperationResultDto result = productService.bulkUpdateProducts(update);
+		return new ResponseEntity<>(result, HttpStatus.OK);
+	}
+
 	/**
 	 * Retrieves the total revenue generated by all sales.
 	 *
@@ -0,0 +1,82 @@
+package com.sparksupport.product.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sparksupport.product.dto.ReportJobDto;
+import com.sparksupport.product.dto.ReportResultDto;
+import com.sparksupport.product.dto.ReportSpecDto;
+import com.sparksupport.product.service.IReportService;
+
+/**
+ * Controller class for asynchronous revenue report jobs.
+ */
+@RestController
+@Validated
+public class ReportController {
+
+	@Autowired
+	private IReportService reportService;
+
+	/**
+	 * Submits a revenue report for asynchronous generation.
+	 *
+	 * @param spec The report specification
+	 * @return ReportJobDto of the accepted job
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping("/reports")
+	public ResponseEntity<ReportJobDto> submitReport(@RequestBody ReportSpecDto spec) {
+		ReportJobDto job = reportService.submitReport(spec);
+		return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+	}
+
+	/**
+	 * Retrieves the state and progress of a report job.
+	 *
+	 * @param id The ID of the job
+	 * @return ReportJobDto of the job
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping("/reports/{id}")
+	public ResponseEntity<ReportJobDto> getReportJob(@PathVariable("id") String id) {
+		ReportJobDto job = reportService.getReportJob(id);
+		return new ResponseEntity<>(job, HttpStatus.OK);
+	}
+
+	/**
+	 * Downloads the result of a completed report job.
+	 *
+	 * @param id The ID of the job
+	 * @return ReportResultDto of the job
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping("/reports/{id}/result")
+	public ResponseEntity<ReportResultDto> getReportResult(@PathVariable("id") String id) {
+		ReportResultDto result = reportService.getReportResult(id);
+		return new ResponseEntity<>(result, HttpStatus.OK);
+	}
+
+	/**
+	 * Cancels a report job that has not finished.
+	 *
+	 * @param id The ID of the job
+	 * @return ReportJobDto of the job
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@DeleteMapping("/reports/{id}")
+	public ResponseEntity<ReportJobDto> cancelReport(@PathVariable("id") String id) {
+		ReportJobDto job = reportService.cancelReport(id);
+		return new ResponseEntity<>(job, HttpStatus.OK);
+	}
+
+}
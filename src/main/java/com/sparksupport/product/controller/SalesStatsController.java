@@ -0,0 +1,66 @@
+package com.sparksupport.product.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sparksupport.product.dto.HeavyHittersDto;
+import com.sparksupport.product.dto.ProductStatsDto;
+import com.sparksupport.product.service.ISalesStatsService;
+
+/**
+ * Controller class for sketch-based sales statistics.
+ */
+@RestController
+@Validated
+public class SalesStatsController {
+
+	@Autowired
+	private ISalesStatsService salesStatsService;
+
+	/**
+	 * Retrieves quantity quantiles and distinct sale days of a product, with the
+	 * error bounds of each estimate.
+	 *
+	 * @param id The ID of the product
+	 * @return ProductStatsDto of the product
+	 */
+	@GetMapping("/stats/product/{id}")
+	public ResponseEntity<ProductStatsDto> getProductStats(@PathVariable("id") int id) {
+		ProductStatsDto stats = salesStatsService.getProductStats(id);
+		return new ResponseEntity<>(stats, HttpStatus.OK);
+	}
+
+	/**
+	 * Retrieves the products with the most units sold.
+	 *
+	 * @param limit The maximum number of products to return
+	 * @return HeavyHittersDto with the products and the error bounds
+	 */
+	@GetMapping("/stats/heavy-hitters")
+	public ResponseEntity<HeavyHittersDto> getHeavyHitters(
+			@RequestParam(name = "limit", defaultValue = "10") int limit) {
+		HeavyHittersDto heavyHitters = salesStatsService.getHeavyHitters(limit);
+		return new ResponseEntity<>(heavyHitters, HttpStatus.OK);
+	}
+
+	/**
+	 * Rebuilds all sketches from the sale table.
+	 *
+	 * @return A message with the number of sales scanned
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping("/stats/rebuild")
+	public ResponseEntity<String> rebuild() {
+		long scanned = salesStatsService.rebuild();
+		return new ResponseEntity<>("Sales statistics rebuilt from " + scanned + " sales", HttpStatus.OK);
+	}
+
+}
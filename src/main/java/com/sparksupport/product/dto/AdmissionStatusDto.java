@@ -0,0 +1,53 @@
+package com.sparksupport.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the state of an admission control
+ * limit.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AdmissionStatusDto {
+
+	/**
+	 * The endpoint the limit applies to, or "global" for the shared limit.
+	 */
+	private String endpoint;
+
+	/**
+	 * The priority class of the endpoint, or the class a global limit applies to.
+	 */
+	private String priority;
+
+	/**
+	 * The current concurrency limit.
+	 */
+	private int limit;
+
+	/**
+	 * The number of requests currently admitted; for global limits, across all
+	 * priority classes.
+	 */
+	private int inFlight;
+
+	/**
+	 * The baseline latency in milliseconds; 0 for global limits, which follow the
+	 * congestion signals of the endpoints.
+	 */
+	private double baselineMillis;
+
+	/**
+	 * The number of requests admitted so far.
+	 */
+	private long accepted;
+
+	/**
+	 * The number of requests rejected so far.
+	 */
+	private long rejected;
+
+}
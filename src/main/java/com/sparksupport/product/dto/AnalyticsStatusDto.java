@@ -0,0 +1,42 @@
+package com.sparksupport.product.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the state of the analytics engine.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnalyticsStatusDto {
+
+	/**
+	 * The number of sales held in memory.
+	 */
+	private int sales;
+
+	/**
+	 * The number of product slots, one more than the highest product ID.
+	 */
+	private int productSlots;
+
+	/**
+	 * The approximate memory used by the columns in bytes.
+	 */
+	private long memoryBytes;
+
+	/**
+	 * The number of workers aggregation queries run on.
+	 */
+	private int parallelism;
+
+	/**
+	 * The time the sales were loaded from the database.
+	 */
+	private Instant loadedAt;
+
+}
@@ -0,0 +1,34 @@
+package com.sparksupport.product.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the outcome of archiving or
+ * restoring sales.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchiveOperationResultDto {
+
+	/**
+	 * The names of the segments written or restored.
+	 */
+	private List<String> segments;
+
+	/**
+	 * The number of sales moved.
+	 */
+	private long sales;
+
+	/**
+	 * The number of archived sales dropped by a restore because their product no
+	 * longer exists.
+	 */
+	private long droppedSales;
+
+}
@@ -0,0 +1,47 @@
+package com.sparksupport.product.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing one archive segment file.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchiveSegmentDto {
+
+	/**
+	 * The file name of the segment.
+	 */
+	private String name;
+
+	/**
+	 * The earliest sale date in the segment.
+	 */
+	private LocalDate minDate;
+
+	/**
+	 * The latest sale date in the segment.
+	 */
+	private LocalDate maxDate;
+
+	/**
+	 * The number of sales in the segment.
+	 */
+	private int sales;
+
+	/**
+	 * The number of distinct products in the segment.
+	 */
+	private int products;
+
+	/**
+	 * The size of the file in bytes.
+	 */
+	private long bytes;
+
+}
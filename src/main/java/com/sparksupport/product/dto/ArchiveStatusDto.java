@@ -0,0 +1,50 @@
+package com.sparksupport.product.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the state of the sales archive.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchiveStatusDto {
+
+	/**
+	 * Sales before this date are moved to the archive by the next run.
+	 */
+	private LocalDate cutoff;
+
+	/**
+	 * The total number of archived sales.
+	 */
+	private long sales;
+
+	/**
+	 * The total size of the segment files in bytes.
+	 */
+	private long bytes;
+
+	/**
+	 * The segments in the archive, oldest first.
+	 */
+	private List<ArchiveSegmentDto> segments;
+
+	/**
+	 * The names of segment files that failed their integrity check and were
+	 * quarantined.
+	 */
+	private List<String> corruptSegments;
+
+	/**
+	 * The names of recorded segments whose file was not found at startup; their
+	 * sales are not served.
+	 */
+	private List<String> missingSegments;
+
+}
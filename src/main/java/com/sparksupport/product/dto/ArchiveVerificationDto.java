@@ -0,0 +1,29 @@
+package com.sparksupport.product.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the outcome of an archive integrity
+ * check.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchiveVerificationDto {
+
+	/**
+	 * The number of segments checked.
+	 */
+	private int checked;
+
+	/**
+	 * The names of the segments whose checksum did not match; they were
+	 * quarantined.
+	 */
+	private List<String> corruptSegments;
+
+}
@@ -0,0 +1,38 @@
+package com.sparksupport.product.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the outcome of a bulk operation.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkOperationResultDto {
+
+	/**
+	 * The number of products matched by the selection.
+	 */
+	private int matchedProducts;
+
+	/**
+	 * The number of product rows updated or deleted.
+	 */
+	private int affectedProducts;
+
+	/**
+	 * The number of sale rows deleted.
+	 */
+	private int deletedSales;
+
+	/**
+	 * The IDs of matched products that were left unchanged, because they no
+	 * longer existed or their new price or quantity would have been negative.
+	 */
+	private List<Integer> skippedIds;
+
+}
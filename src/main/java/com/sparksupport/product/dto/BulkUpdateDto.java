@@ -0,0 +1,42 @@
+package com.sparksupport.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) describing a bulk price and quantity update. At
+ * most one of price and priceFactor and at most one of quantity and
+ * quantityDelta may be given.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkUpdateDto {
+
+	/**
+	 * The products to update.
+	 */
+	private ProductSelectionDto selection;
+
+	/**
+	 * The new price of the products.
+	 */
+	private Double price;
+
+	/**
+	 * The factor to multiply the current price of the products by.
+	 */
+	private Double priceFactor;
+
+	/**
+	 * The new available quantity of the products.
+	 */
+	private Integer quantity;
+
+	/**
+	 * The amount to add to the current available quantity of the products.
+	 */
+	private Integer quantityDelta;
+
+}
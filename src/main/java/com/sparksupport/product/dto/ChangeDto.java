@@ -0,0 +1,79 @@
+package com.sparksupport.product.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sparksupport.product.feed.ChangeType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing a change published on the change
+ * feed. Fields that do not apply to the change type are omitted.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeDto {
+
+	/**
+	 * The position of the change in the feed, increasing by one per change.
+	 */
+	private long offset;
+
+	/**
+	 * The server-sent event ID of the change, {@code <epoch>-<offset>}, where the
+	 * epoch identifies the process that published it.
+	 */
+	private String eventId;
+
+	/**
+	 * The type of the change.
+	 */
+	private ChangeType type;
+
+	/**
+	 * The time the change was published.
+	 */
+	private Instant timestamp;
+
+	/**
+	 * The ID of the changed product.
+	 */
+	private int productId;
+
+	/**
+	 * The name of the product.
+	 */
+	private String name;
+
+	/**
+	 * The price of the product.
+	 */
+	private Double price;
+
+	/**
+	 * The available quantity of the product.
+	 */
+	private Integer quantity;
+
+	/**
+	 * The ID of the recorded sale.
+	 */
+	private Integer saleId;
+
+	/**
+	 * The quantity sold in the recorded sale.
+	 */
+	private Integer saleQuantity;
+
+	/**
+	 * The date of the recorded sale.
+	 */
+	private LocalDate saleDate;
+
+}
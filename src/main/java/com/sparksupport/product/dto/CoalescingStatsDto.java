@@ -0,0 +1,36 @@
+package com.sparksupport.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing request coalescing counters of an
+ * operation.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CoalescingStatsDto {
+
+	/**
+	 * The name of the operation.
+	 */
+	private String operation;
+
+	/**
+	 * The number of calls that executed.
+	 */
+	private long executions;
+
+	/**
+	 * The number of calls that shared an execution already in flight.
+	 */
+	private long coalesced;
+
+	/**
+	 * The number of coalesced calls that timed out waiting.
+	 */
+	private long timeouts;
+
+}
@@ -0,0 +1,33 @@
+package com.sparksupport.product.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing units sold and revenue on a single
+ * day.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailyRevenueDto {
+
+	/**
+	 * The day.
+	 */
+	private LocalDate date;
+
+	/**
+	 * The number of units sold.
+	 */
+	private long units;
+
+	/**
+	 * The revenue generated.
+	 */
+	private double revenue;
+
+}
@@ -0,0 +1,26 @@
+package com.sparksupport.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing a product with a large share of the
+ * units sold.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HeavyHitterDto {
+
+	/**
+	 * The unique identifier of the product.
+	 */
+	private int productId;
+
+	/**
+	 * The estimated number of units sold, never lower than the true number.
+	 */
+	private long estimatedUnits;
+
+}
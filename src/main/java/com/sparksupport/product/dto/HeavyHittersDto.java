@@ -0,0 +1,44 @@
+package com.sparksupport.product.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the heavy-hitter products together
+ * with the error bounds of their estimates.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HeavyHittersDto {
+
+	/**
+	 * The total number of units sold across all products.
+	 */
+	private long totalUnits;
+
+	/**
+	 * The maximum number of units by which an estimate may exceed the true value.
+	 */
+	private long maxOvercount;
+
+	/**
+	 * The probability that an estimate stays within the maximum overcount.
+	 */
+	private double confidence;
+
+	/**
+	 * List of HeavyHitterDto objects, heaviest first.
+	 */
+	private List<HeavyHitterDto> products;
+
+	/**
+	 * True while the sketches are still being built at startup and do not yet
+	 * cover the sales recorded before it.
+	 */
+	private boolean warming;
+
+}
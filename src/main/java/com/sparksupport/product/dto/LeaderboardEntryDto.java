@@ -0,0 +1,41 @@
+package com.sparksupport.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing a product's position on the sales
+ * leaderboard.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardEntryDto {
+
+	/**
+	 * The 1-based position of the product on the leaderboard.
+	 */
+	private int rank;
+
+	/**
+	 * The unique identifier of the product.
+	 */
+	private int productId;
+
+	/**
+	 * The name of the product.
+	 */
+	private String name;
+
+	/**
+	 * The number of units sold within the requested window.
+	 */
+	private long units;
+
+	/**
+	 * The revenue generated within the requested window.
+	 */
+	private double revenue;
+
+}
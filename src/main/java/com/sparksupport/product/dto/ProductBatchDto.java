@@ -0,0 +1,27 @@
+package com.sparksupport.product.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the result of a batch product read.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchDto {
+
+	/**
+	 * List of ProductDto objects in the order the IDs were requested.
+	 */
+	private List<ProductDto> products;
+
+	/**
+	 * List of requested IDs for which no product exists.
+	 */
+	private List<Integer> missingIds;
+
+}
@@ -0,0 +1,30 @@
+package com.sparksupport.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing units sold and revenue of a product.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductRevenueDto {
+
+	/**
+	 * The unique identifier of the product.
+	 */
+	private int productId;
+
+	/**
+	 * The number of units sold.
+	 */
+	private long units;
+
+	/**
+	 * The revenue generated.
+	 */
+	private double revenue;
+
+}
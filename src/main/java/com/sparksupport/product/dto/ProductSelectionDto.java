@@ -0,0 +1,52 @@
+package com.sparksupport.product.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) selecting the products a bulk operation applies
+ * to. All given conditions must match; at least one must be given.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSelectionDto {
+
+	/**
+	 * The IDs of the products to select.
+	 */
+	private List<Integer> ids;
+
+	/**
+	 * Text the product name must contain.
+	 */
+	private String nameContains;
+
+	/**
+	 * The minimum product price, inclusive.
+	 */
+	private Double minPrice;
+
+	/**
+	 * The maximum product price, inclusive.
+	 */
+	private Double maxPrice;
+
+	/**
+	 * @return True if no condition is given.
+	 */
+	public boolean isEmpty() {
+		return (ids == null || ids.isEmpty()) && !hasCriteria();
+	}
+
+	/**
+	 * @return True if any condition other than the IDs is given.
+	 */
+	public boolean hasCriteria() {
+		return nameContains != null || minPrice != null || maxPrice != null;
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.sparksupport.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing sketch-based sales statistics of a
+ * product.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductStatsDto {
+
+	/**
+	 * The unique identifier of the product.
+	 */
+	private int productId;
+
+	/**
+	 * The number of sales recorded for the product.
+	 */
+	private long sales;
+
+	/**
+	 * The estimated median quantity per sale.
+	 */
+	private double quantityP50;
+
+	/**
+	 * The estimated 95th percentile quantity per sale.
+	 */
+	private double quantityP95;
+
+	/**
+	 * The maximum relative error of the quantity quantiles.
+	 */
+	private double quantityRelativeError;
+
+	/**
+	 * The estimated number of distinct days on which the product was sold.
+	 */
+	private long distinctSaleDays;
+
+	/**
+	 * The relative standard error of the distinct sale day estimate.
+	 */
+	private double distinctSaleDaysStandardError;
+
+	/**
+	 * True while the sketches are still being built at startup and do not yet
+	 * cover the sales recorded before it.
+	 */
+	private boolean warming;
+
+}
@@ -0,0 +1,54 @@
+package com.sparksupport.product.dto;
+
+import java.time.Instant;
+
+import com.sparksupport.product.service.ReportStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the state of a report job.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportJobDto {
+
+	/**
+	 * The unique identifier of the job.
+	 */
+	private String id;
+
+	/**
+	 * The current state of the job.
+	 */
+	private ReportStatus status;
+
+	/**
+	 * The number of chunks the sales were split into.
+	 */
+	private int totalChunks;
+
+	/**
+	 * The number of chunks aggregated so far.
+	 */
+	private int completedChunks;
+
+	/**
+	 * The time the job was submitted.
+	 */
+	private Instant submittedAt;
+
+	/**
+	 * The time the job finished, or null while it is running.
+	 */
+	private Instant finishedAt;
+
+	/**
+	 * The reason the job failed, if it did.
+	 */
+	private String error;
+
+}
@@ -0,0 +1,43 @@
+package com.sparksupport.product.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the result of a completed report job.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportResultDto {
+
+	/**
+	 * The specification the report was generated from.
+	 */
+	private ReportSpecDto spec;
+
+	/**
+	 * The time the report was completed.
+	 */
+	private Instant generatedAt;
+
+	/**
+	 * The total number of units sold across all rows.
+	 */
+	private long totalUnits;
+
+	/**
+	 * The total revenue across all rows.
+	 */
+	private double totalRevenue;
+
+	/**
+	 * List of ReportRowDto objects ordered by period and product.
+	 */
+	private List<ReportRowDto> rows;
+
+}
@@ -0,0 +1,35 @@
+package com.sparksupport.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing one row of a revenue report.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportRowDto {
+
+	/**
+	 * The ID of the product, or null if the report is not grouped by product.
+	 */
+	private Integer productId;
+
+	/**
+	 * The period label, or null if the report is not grouped by time.
+	 */
+	private String period;
+
+	/**
+	 * The number of units sold.
+	 */
+	private long units;
+
+	/**
+	 * The revenue generated.
+	 */
+	private double revenue;
+
+}
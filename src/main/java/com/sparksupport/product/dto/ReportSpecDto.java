@@ -0,0 +1,50 @@
+package com.sparksupport.product.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.sparksupport.product.service.ReportPeriod;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) describing a revenue report to generate.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportSpecDto {
+
+	/**
+	 * The earliest sale date to include, or null for no lower bound.
+	 */
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate from;
+
+	/**
+	 * The latest sale date to include, or null for no upper bound.
+	 */
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate to;
+
+	/**
+	 * Whether to produce one row per product.
+	 */
+	private boolean byProduct = true;
+
+	/**
+	 * The time granularity of the rows.
+	 */
+	private ReportPeriod period = ReportPeriod.MONTH;
+
+	/**
+	 * The products to include, or null for all products. Limited in size by
+	 * sparksupport.reports.max-product-ids.
+	 */
+	private List<Integer> productIds;
+
+}
@@ -0,0 +1,38 @@
+package com.sparksupport.product.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing units sold and revenue over a date
+ * range.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevenueSummaryDto {
+
+	/**
+	 * The earliest sale date included, or null for no lower bound.
+	 */
+	private LocalDate from;
+
+	/**
+	 * The latest sale date included, or null for no upper bound.
+	 */
+	private LocalDate to;
+
+	/**
+	 * The number of units sold.
+	 */
+	private long units;
+
+	/**
+	 * The revenue generated.
+	 */
+	private double revenue;
+
+}
@@ -0,0 +1,33 @@
+package com.sparksupport.product.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity class recording an archive segment whose sales have been moved out of
+ * the sale table. The row is written and removed in the same transaction as
+ * the sales, so a transaction sees a segment exactly when it no longer sees
+ * the segment's sales in the sale table.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "archived_segment")
+public class ArchivedSegment {
+
+	/**
+	 * The file name of the segment.
+	 */
+	@Id
+	private String name;
+
+	/**
+	 * The number of sales in the segment.
+	 */
+	private int sales;
+}
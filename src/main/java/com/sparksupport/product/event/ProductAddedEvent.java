@@ -0,0 +1,31 @@
+package com.sparksupport.product.event;
+
+import lombok.Value;
+
+/**
+ * Application event published when a new product has been added.
+ */
+@Value
+public class ProductAddedEvent {
+
+	/**
+	 * The ID of the added product.
+	 */
+	int productId;
+
+	/**
+	 * The name of the product.
+	 */
+	String name;
+
+	/**
+	 * The price of the product.
+	 */
+	double price;
+
+	/**
+	 * The available quantity of the product.
+	 */
+	int quantity;
+
+}
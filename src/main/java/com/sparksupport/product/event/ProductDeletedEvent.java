@@ -0,0 +1,16 @@
+package com.sparksupport.product.event;
+
+import lombok.Value;
+
+/**
+ * Application event published when a product and its sales have been deleted.
+ */
+@Value
+public class ProductDeletedEvent {
+
+	/**
+	 * The ID of the deleted product.
+	 */
+	int productId;
+
+}
@@ -0,0 +1,31 @@
+package com.sparksupport.product.event;
+
+import lombok.Value;
+
+/**
+ * Application event published when the details of a product have been updated.
+ */
+@Value
+public class ProductUpdatedEvent {
+
+	/**
+	 * The ID of the updated product.
+	 */
+	int productId;
+
+	/**
+	 * The new name of the product.
+	 */
+	String name;
+
+	/**
+	 * The new price of the product.
+	 */
+	double price;
+
+	/**
+	 * The new available quantity of the product.
+	 */
+	int quantity;
+
+}
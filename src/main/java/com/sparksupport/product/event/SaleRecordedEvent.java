@@ -0,0 +1,43 @@
+package com.sparksupport.product.event;
+
+import java.time.LocalDate;
+
+import lombok.Value;
+
+/**
+ * Application event published when a sale has been persisted for a product.
+ */
+@Value
+public class SaleRecordedEvent {
+
+	/**
+	 * The ID of the sale.
+	 */
+	int saleId;
+
+	/**
+	 * The ID of the product the sale belongs to.
+	 */
+	int productId;
+
+	/**
+	 * The name of the product at the time of the sale.
+	 */
+	String productName;
+
+	/**
+	 * The price of the product at the time of the sale.
+	 */
+	double price;
+
+	/**
+	 * The quantity of the product sold in this sale.
+	 */
+	int quantity;
+
+	/**
+	 * The date when the sale occurred.
+	 */
+	LocalDate saleDate;
+
+}
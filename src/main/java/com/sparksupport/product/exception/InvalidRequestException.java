@@ -0,0 +1,23 @@
+package com.sparksupport.product.exception;
+
+/**
+ * Exception thrown when request parameters are invalid, such as an unknown
+ * option or a value outside its allowed range.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a new InvalidRequestException with the specified detail message.
+	 *
+	 * @param message the detail message.
+	 */
+	public InvalidRequestException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,24 @@
+package com.sparksupport.product.exception;
+
+/**
+ * Exception thrown when an operation cannot start because a conflicting one is
+ * still running.
+ */
+public class OperationInProgressException extends RuntimeException {
+
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a new OperationInProgressException with the specified detail
+	 * message.
+	 *
+	 * @param message the detail message.
+	 */
+	public OperationInProgressException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,24 @@
+package com.sparksupport.product.exception;
+
+/**
+ * Exception thrown when the result of a report job is requested before the job
+ * has completed successfully.
+ */
+public class ReportNotCompletedException extends RuntimeException {
+
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a new ReportNotCompletedException with the specified detail
+	 * message.
+	 *
+	 * @param message the detail message.
+	 */
+	public ReportNotCompletedException(String message) {
+		super(message);
+	}
+
+}
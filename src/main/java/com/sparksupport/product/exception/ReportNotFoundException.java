@@ -0,0 +1,22 @@
+package com.sparksupport.product.exception;
+
+/**
+ * Exception thrown when a report job is not found.
+ */
+public class ReportNotFoundException extends RuntimeException {
+
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a new ReportNotFoundException with the specified detail message.
+	 *
+	 * @param message the detail message.
+	 */
+	public ReportNotFoundException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.sparksupport.product.exception;
+
+/**
+ * Exception thrown when a request is rejected because the service is
+ * overloaded.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The number of seconds the client should wait before retrying.
+	 */
+	private final long retryAfterSeconds;
+
+	/**
+	 * Constructs a new ServiceOverloadedException with the specified detail message
+	 * and retry delay.
+	 *
+	 * @param message           the detail message.
+	 * @param retryAfterSeconds the number of seconds the client should wait before
+	 *                          retrying.
+	 */
+	public ServiceOverloadedException(String message, long retryAfterSeconds) {
+		super(message);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	/**
+	 * @return the number of seconds the client should wait before retrying.
+	 */
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+
+}
@@ -0,0 +1,476 @@
+package com.sparksupport.product.feed;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.sparksupport.product.dto.ChangeDto;
+import com.sparksupport.product.event.ProductAddedEvent;
+import com.sparksupport.product.event.ProductDeletedEvent;
+import com.sparksupport.product.event.ProductUpdatedEvent;
+import com.sparksupport.product.event.SaleRecordedEvent;
+import com.sparksupport.product.exception.InvalidRequestException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * In-process broadcaster of product and sale changes to server-sent event
+ * subscribers.
+ * <p>
+ * Changes are appended after their transaction commits and numbered with
+ * increasing offsets. Offsets restart with every process, so event IDs have the
+ * form {@code <epoch>-<offset>}, where the epoch is the start time of the feed.
+ * The most recent changes are kept in a bounded replay log, so a client
+ * reconnecting with its last event ID receives what it missed. A client whose
+ * ID is from another epoch or no longer retained receives a {@code reset} event
+ * and must reload its state before consuming further changes.
+ * <p>
+ * Every subscriber has its own bounded queue drained by a shared sender pool,
+ * so a slow client never blocks publishing. A sender task sends at most a small
+ * batch before yielding the thread to other subscribers, and a watchdog closes
+ * subscribers whose send has not completed within the send timeout, so stalled
+ * clients cannot occupy the pool. Should a blocked write ignore the interrupt,
+ * the pool grows by one thread until that send returns. When its queue is
+ * full, the subscriber's {@link DropPolicy} decides what is discarded. Emitters
+ * are only completed by sender tasks, never while publishing, since completing
+ * waits for a send in progress.
+ */
+@Component
+@Log4j2
+public class ChangeFeed {
+
+	/**
+	 * Name of the event sent when a requested offset is no longer retained.
+	 */
+	public static final String RESET_EVENT = "reset";
+
+	@Value("${sparksupport.feed.replay-capacity:10000}")
+	private int replayCapacity;
+
+	@Value("${sparksupport.feed.subscriber-queue-capacity:1000}")
+	private int queueCapacity;
+
+	@Value("${sparksupport.feed.sender-threads:4}")
+	private int senderThreads;
+
+	@Value("${sparksupport.feed.timeout-ms:1800000}")
+	private long timeoutMillis;
+
+	@Value("${sparksupport.feed.send-batch-size:100}")
+	private int sendBatchSize;
+
+	@Value("${sparksupport.feed.send-timeout-ms:10000}")
+	private long sendTimeoutMillis;
+
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+	private ChangeDto[] replayLog;
+
+	private final long epoch = System.currentTimeMillis();
+
+	private long nextOffset = 1;
+
+	private ThreadPoolExecutor senders;
+
+	private int stalledSenders;
+
+	private ScheduledExecutorService watchdog;
+
+	/**
+	 * Creates the replay log, the sender pool and the send watchdog.
+	 */
+	@PostConstruct
+	void init() {
+		replayLog = new ChangeDto[replayCapacity];
+		senders = (ThreadPoolExecutor) Executors.newFixedThreadPool(senderThreads);
+		watchdog = Executors.newSingleThreadScheduledExecutor();
+		long period = Math.max(100, Math.min(1000, sendTimeoutMillis / 2));
+		watchdog.scheduleWithFixedDelay(this::closeStalledSubscribers, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Closes all subscriptions and stops the sender pool and the watchdog.
+	 */
+	@PreDestroy
+	void shutdown() {
+		subscribers.forEach(Subscriber::close);
+		watchdog.shutdownNow();
+		senders.shutdownNow();
+	}
+
+	/**
+	 * Opens a subscription that streams changes after the given event ID.
+	 *
+	 * @param afterId The last event ID the client has seen, or null to receive
+	 *                only new changes.
+	 * @param policy  What to discard when the client falls behind.
+	 * @return The SseEmitter streaming the changes.
+	 * @throws InvalidRequestException If the event ID is malformed.
+	 */
+	public SseEmitter subscribe(String afterId, DropPolicy policy) {
+		Long afterOffset = parseOffset(afterId);
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		Subscriber subscriber = new Subscriber(emitter, policy);
+		emitter.onCompletion(subscriber::close);
+		emitter.onTimeout(subscriber::close);
+		emitter.onError(e -> subscriber.close());
+
+		synchronized (this) {
+			long oldest = Math.max(1, nextOffset - replayCapacity);
+			if (afterId != null) {
+				if (afterOffset == null || afterOffset + 1 < oldest || afterOffset >= nextOffset) {
+					subscriber.reset = true;
+				} else {
+					for (long offset = afterOffset + 1; offset < nextOffset; offset++) {
+						subscriber.replay.add(replayLog[(int) (offset % replayCapacity)]);
+					}
+				}
+			}
+			subscribers.add(subscriber);
+		}
+		subscriber.schedule();
+		return emitter;
+	}
+
+	/**
+	 * @return The number of open subscriptions.
+	 */
+	public int getSubscriberCount() {
+		return subscribers.size();
+	}
+
+	/**
+	 * @return The offset of the most recent change, or 0 if none was published.
+	 */
+	public synchronized long getLatestOffset() {
+		return nextOffset - 1;
+	}
+
+	/**
+	 * Extracts the offset from an event ID of this feed.
+	 *
+	 * @param eventId The event ID, or null.
+	 * @return The offset, or null if the ID is null or from another epoch.
+	 * @throws InvalidRequestException If the event ID is malformed.
+	 */
+	private Long parseOffset(String eventId) {
+		if (eventId == null) {
+			return null;
+		}
+		String id = eventId.trim();
+		int separator = id.indexOf('-');
+		try {
+			if (separator < 0) {
+				// A bare offset comes from a client of an older version
+				Long.parseLong(id);
+				return null;
+			}
+			long idEpoch = Long.parseLong(id.substring(0, separator));
+			long offset = Long.parseLong(id.substring(separator + 1));
+			return idEpoch == epoch ? offset : null;
+		} catch (NumberFormatException e) {
+			throw new InvalidRequestException("Malformed change feed event ID: " + eventId);
+		}
+	}
+
+	/**
+	 * Closes subscribers whose current send has taken longer than the send
+	 * timeout and interrupts their blocked sender thread.
+	 */
+	private void closeStalledSubscribers() {
+		long now = System.nanoTime();
+		for (Subscriber subscriber : subscribers) {
+			subscriber.closeIfStalled(now);
+		}
+	}
+
+	/**
+	 * Publishes a committed product addition.
+	 *
+	 * @param event The product event.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductAdded(ProductAddedEvent event) {
+		publish(new ChangeDto(0, null, ChangeType.PRODUCT_ADDED, null, event.getProductId(), event.getName(),
+				event.getPrice(), event.getQuantity(), null, null, null));
+	}
+
+	/**
+	 * Publishes a committed product update.
+	 *
+	 * @param event The product event.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductUpdated(ProductUpdatedEvent event) {
+		publish(new ChangeDto(0, null, ChangeType.PRODUCT_UPDATED, null, event.getProductId(), event.getName(),
+				event.getPrice(), event.getQuantity(), null, null, null));
+	}
+
+	/**
+	 * Publishes a committed product deletion.
+	 *
+	 * @param event The product event.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductDeleted(ProductDeletedEvent event) {
+		publish(new ChangeDto(0, null, ChangeType.PRODUCT_DELETED, null, event.getProductId(), null, null, null, null,
+				null, null));
+	}
+
+	/**
+	 * Publishes a committed sale.
+	 *
+	 * @param event The sale event.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onSaleRecorded(SaleRecordedEvent event) {
+		publish(new ChangeDto(0, null, ChangeType.SALE_RECORDED, null, event.getProductId(), null, null, null,
+				event.getSaleId(), event.getQuantity(), event.getSaleDate()));
+	}
+
+	/**
+	 * Keeps {@code senderThreads} threads available besides those still blocked
+	 * in the send of a closed, stalled subscriber.
+	 *
+	 * @param delta 1 when a sender stalls, -1 when its send returns.
+	 */
+	private void resizeSenders(int delta) {
+		synchronized (senders) {
+			stalledSenders += delta;
+			int size = senderThreads + stalledSenders;
+			if (delta > 0) {
+				senders.setMaximumPoolSize(size);
+				senders.setCorePoolSize(size);
+			} else {
+				senders.setCorePoolSize(size);
+				senders.setMaximumPoolSize(size);
+			}
+		}
+	}
+
+	/**
+	 * Numbers a change, appends it to the replay log and queues it for every
+	 * subscriber.
+	 */
+	private synchronized void publish(ChangeDto change) {
+		change.setOffset(nextOffset);
+		change.setEventId(epoch + "-" + nextOffset);
+		change.setTimestamp(Instant.now());
+		replayLog[(int) (nextOffset % replayCapacity)] = change;
+		nextOffset++;
+		for (Subscriber subscriber : subscribers) {
+			subscriber.offer(change);
+		}
+	}
+
+	/**
+	 * A single SSE client with its own queue. At most one sender task drains the
+	 * queue at a time, which keeps changes in offset order; each task sends at
+	 * most one batch and then reschedules itself behind other subscribers.
+	 */
+	private final class Subscriber implements Runnable {
+
+		private final SseEmitter emitter;
+
+		private final DropPolicy policy;
+
+		private final BlockingQueue<ChangeDto> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+		private final List<ChangeDto> replay = new ArrayList<>();
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		private final AtomicLong dropped = new AtomicLong();
+
+		private volatile boolean reset;
+
+		private volatile boolean closed;
+
+		/**
+		 * Set when the queue overflowed under {@link DropPolicy#DISCONNECT}; the
+		 * next sender task completes the emitter.
+		 */
+		private volatile boolean disconnected;
+
+		private final AtomicBoolean completed = new AtomicBoolean();
+
+		/**
+		 * The thread blocked in the current send and when the send started; guarded
+		 * by this subscriber.
+		 */
+		private Thread sender;
+
+		private long sendStartedNanos;
+
+		private boolean stalled;
+
+		private Subscriber(SseEmitter emitter, DropPolicy policy) {
+			this.emitter = emitter;
+			this.policy = policy;
+		}
+
+		private void offer(ChangeDto change) {
+			if (closed) {
+				return;
+			}
+			if (!queue.offer(change)) {
+				switch (policy) {
+				case DROP_OLDEST:
+					queue.poll();
+					queue.offer(change);
+					dropped.incrementAndGet();
+					break;
+				case DROP_NEWEST:
+					dropped.incrementAndGet();
+					return;
+				default:
+					log.warn("Closing change feed subscriber that fell {} changes behind", queueCapacity);
+					// Completing waits for a send in progress, so a sender task does it outside the feed lock
+					disconnected = true;
+					close();
+					if (scheduled.compareAndSet(false, true)) {
+						senders.execute(this);
+					}
+					return;
+				}
+			}
+			schedule();
+		}
+
+		private void schedule() {
+			if (!closed && scheduled.compareAndSet(false, true)) {
+				senders.execute(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				int budget = sendBatchSize;
+				if (reset && !closed) {
+					reset = false;
+					send(SseEmitter.event().name(RESET_EVENT).data("Requested event ID is not retained"));
+					budget--;
+				}
+				int replayed = 0;
+				while (!closed && budget > 0 && replayed < replay.size()) {
+					send(replay.get(replayed++));
+					budget--;
+				}
+				replay.subList(0, replayed).clear();
+				ChangeDto change;
+				while (!closed && budget > 0 && replay.isEmpty() && (change = queue.poll()) != null) {
+					send(change);
+					budget--;
+				}
+			} catch (IOException e) {
+				close();
+				emitter.completeWithError(e);
+			} catch (IllegalStateException e) {
+				// The emitter has already completed
+				close();
+			} finally {
+				synchronized (this) {
+					sender = null;
+					// Clear an interrupt from the watchdog before the thread runs other tasks
+					Thread.interrupted();
+				}
+				scheduled.set(false);
+			}
+			if (disconnected) {
+				complete();
+			} else if (!replay.isEmpty() || !queue.isEmpty()) {
+				schedule();
+			}
+		}
+
+		/**
+		 * Completes the emitter of a subscriber disconnected for falling behind.
+		 * Called by a sender task after its last send has returned, so it never
+		 * waits for one.
+		 */
+		private void complete() {
+			if (completed.compareAndSet(false, true)) {
+				emitter.complete();
+			}
+		}
+
+		private void send(ChangeDto change) throws IOException {
+			send(SseEmitter.event().id(change.getEventId()).name(change.getType().name()).data(change));
+		}
+
+		private void send(SseEmitter.SseEventBuilder event) throws IOException {
+			synchronized (this) {
+				if (closed) {
+					throw new IOException("Subscriber closed");
+				}
+				sender = Thread.currentThread();
+				sendStartedNanos = System.nanoTime();
+			}
+			boolean overran;
+			try {
+				emitter.send(event);
+			} finally {
+				synchronized (this) {
+					sender = null;
+					overran = stalled;
+					if (stalled) {
+						stalled = false;
+						resizeSenders(-1);
+					}
+				}
+			}
+			if (overran) {
+				throw new IOException("Send took longer than " + sendTimeoutMillis + " ms");
+			}
+		}
+
+		/**
+		 * Closes the subscriber if its current send has overrun the send timeout.
+		 * The emitter is not completed here, since that would wait for the blocked
+		 * send; interrupting the sender fails the send and releases the thread.
+		 *
+		 * @param now The current {@link System#nanoTime()}.
+		 */
+		private synchronized void closeIfStalled(long now) {
+			if (sender != null && !stalled
+					&& now - sendStartedNanos > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis)) {
+				log.warn("Closing change feed subscriber whose send took longer than {} ms", sendTimeoutMillis);
+				close();
+				stalled = true;
+				resizeSenders(1);
+				sender.interrupt();
+			}
+		}
+
+		private void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			subscribers.remove(this);
+			if (dropped.get() > 0) {
+				log.info("Change feed subscriber closed after dropping {} changes", dropped.get());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.sparksupport.product.feed;
+
+/**
+ * Types of changes published on the change feed.
+ */
+public enum ChangeType {
+
+	/**
+	 * A product was added.
+	 */
+	PRODUCT_ADDED,
+
+	/**
+	 * The name, price or quantity of a product changed.
+	 */
+	PRODUCT_UPDATED,
+
+	/**
+	 * A product and its sales were deleted.
+	 */
+	PRODUCT_DELETED,
+
+	/**
+	 * A sale was recorded for a product.
+	 */
+	SALE_RECORDED
+
+}
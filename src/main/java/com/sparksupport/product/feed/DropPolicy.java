@@ -0,0 +1,25 @@
+package com.sparksupport.product.feed;
+
+/**
+ * What the change feed does when a subscriber's queue is full because the
+ * client reads slower than changes are published.
+ */
+public enum DropPolicy {
+
+	/**
+	 * Close the stream. The client reconnects with its last offset and catches up
+	 * from the replay log, so no change is lost while it is retained.
+	 */
+	DISCONNECT,
+
+	/**
+	 * Discard the oldest queued change to make room for the new one.
+	 */
+	DROP_OLDEST,
+
+	/**
+	 * Discard the new change.
+	 */
+	DROP_NEWEST
+
+}
@@ -2,6 +2,7 @@ package com.sparksupport.product.handler;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
@@ -11,8 +12,13 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.sparksupport.product.exception.InvalidRequestException;
+import com.sparksupport.product.exception.OperationInProgressException;
 import com.sparksupport.product.exception.ProductNotFoundException;
 import com.sparksupport.product.exception.ProductOperationException;
+import com.sparksupport.product.exception.ReportNotCompletedException;
+import com.sparksupport.product.exception.ReportNotFoundException;
+import com.sparksupport.product.exception.ServiceOverloadedException;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -76,6 +82,21 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
 	}
 
+	/**
+	 * Handles ReportNotFoundException and returns a ResponseEntity with NOT_FOUND
+	 * status.
+	 *
+	 * @param e the ReportNotFoundException
+	 * @return ResponseEntity containing error message and HTTP status code.
+	 */
+	@ExceptionHandler(ReportNotFoundException.class)
+	@ResponseStatus(HttpStatus.NOT_FOUND)
+	public ResponseEntity<String> handleReportNotFoundException(ReportNotFoundException e) {
+
+		log.error("Report job with specific id not present", e);
+		return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+	}
+
 	/**
 	 * Handles ProductOperationException and returns a ResponseEntity with
 	 * INTERNAL_SERVER_ERROR status.
@@ -91,4 +112,66 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
 	}
 
+	/**
+	 * Handles InvalidRequestException raised for invalid request parameters and
+	 * returns a ResponseEntity with BAD_REQUEST status.
+	 *
+	 * @param e the InvalidRequestException
+	 * @return ResponseEntity containing error message and HTTP status code.
+	 */
+	@ExceptionHandler(InvalidRequestException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public ResponseEntity<String> handleInvalidRequestException(InvalidRequestException e) {
+
+		log.error("Invalid request parameter", e);
+		return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+	}
+
+	/**
+	 * Handles OperationInProgressException and returns a ResponseEntity with
+	 * CONFLICT status.
+	 *
+	 * @param e the OperationInProgressException
+	 * @return ResponseEntity containing error message and HTTP status code.
+	 */
+	@ExceptionHandler(OperationInProgressException.class)
+	@ResponseStatus(HttpStatus.CONFLICT)
+	public ResponseEntity<String> handleOperationInProgressException(OperationInProgressException e) {
+
+		log.error("Operation conflicts with one in progress", e);
+		return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+	}
+
+	/**
+	 * Handles ReportNotCompletedException and returns a ResponseEntity with
+	 * CONFLICT status.
+	 *
+	 * @param e the ReportNotCompletedException
+	 * @return ResponseEntity containing error message and HTTP status code.
+	 */
+	@ExceptionHandler(ReportNotCompletedException.class)
+	@ResponseStatus(HttpStatus.CONFLICT)
+	public ResponseEntity<String> handleReportNotCompletedException(ReportNotCompletedException e) {
+
+		log.error("Report result requested before completion", e);
+		return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+	}
+
+	/**
+	 * Handles ServiceOverloadedException and returns a ResponseEntity with
+	 * SERVICE_UNAVAILABLE status and a Retry-After header. Logged without a stack
+	 * trace, since rejections are expected under load.
+	 *
+	 * @param e the ServiceOverloadedException
+	 * @return ResponseEntity containing error message and HTTP status code.
+	 */
+	@ExceptionHandler(ServiceOverloadedException.class)
+	@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+	public ResponseEntity<String> handleServiceOverloadedException(ServiceOverloadedException e) {
+
+		log.warn(e.getMessage());
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds())).body(e.getMessage());
+	}
+
 }
@@ -0,0 +1,23 @@
+package com.sparksupport.product.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.sparksupport.product.entity.ArchivedSegment;
+
+/**
+ * Repository interface for the segments recorded in the sales archive.
+ */
+public interface ArchivedSegmentRepository extends JpaRepository<ArchivedSegment, String> {
+
+	/**
+	 * Retrieves the names of all recorded segments.
+	 *
+	 * @return List of segment file names.
+	 */
+	@Query("select a.name from ArchivedSegment a")
+	List<String> findAllNames();
+
+}
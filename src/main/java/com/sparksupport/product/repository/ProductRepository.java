@@ -1,12 +1,130 @@
 package com.sparksupport.product.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.sparksupport.product.entity.Product;
 
+import jakarta.persistence.LockModeType;
+
 /**
  * Repository interface for performing CRUD operations on Product entities.
  */
 public interface ProductRepository extends JpaRepository<Product, Integer>{
 
+	/**
+	 * Retrieves the basic details of all products without loading their sales.
+	 *
+	 * @return List of ProductSummary projections.
+	 */
+	@Query("select p.id as id, p.name as name, p.price as price, p.quantity as quantity from Product p")
+	List<ProductSummary> findAllSummaries();
+
+	/**
+	 * Retrieves the basic details of the given products without loading their
+	 * sales.
+	 *
+	 * @param ids The IDs of the products.
+	 * @return List of ProductSummary projections.
+	 */
+	@Query("select p.id as id, p.name as name, p.price as price, p.quantity as quantity from Product p "
+			+ "where p.id in :ids")
+	List<ProductSummary> findSummariesByIds(@Param("ids") Collection<Integer> ids);
+
+	/**
+	 * Retrieves which of the given product IDs exist.
+	 *
+	 * @param ids The IDs to look up.
+	 * @return List of existing product IDs in ascending order.
+	 */
+	@Query("select p.id from Product p where p.id in :ids order by p.id")
+	List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+	/**
+	 * Retrieves the IDs of the products matching all given criteria. Null criteria
+	 * are ignored.
+	 *
+	 * @param nameContains Text the product name must contain, with {@code !},
+	 *                     {@code %} and {@code _} escaped by {@code !}.
+	 * @param minPrice     The minimum price, inclusive.
+	 * @param maxPrice     The maximum price, inclusive.
+	 * @return List of product IDs in ascending order.
+	 */
+	@Query("select p.id from Product p "
+			+ "where (:nameContains is null or p.name like concat('%', :nameContains, '%') escape '!') "
+			+ "and (:minPrice is null or p.price >= :minPrice) and (:maxPrice is null or p.price <= :maxPrice) "
+			+ "order by p.id")
+	List<Integer> findIdsByCriteria(@Param("nameContains") String nameContains, @Param("minPrice") Double minPrice,
+			@Param("maxPrice") Double maxPrice);
+
+	/**
+	 * Deletes the given products in a single statement. Their sales must be
+	 * deleted first.
+	 *
+	 * @param ids The IDs of the products.
+	 * @return The number of deleted products.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Product p where p.id in :ids")
+	int deleteByIds(@Param("ids") Collection<Integer> ids);
+
+	/**
+	 * Locks the given products that still exist until the end of the
+	 * transaction, so that a following bulk statement changes exactly these rows.
+	 *
+	 * @param ids The IDs of the products.
+	 * @return List of the locked IDs.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select p.id from Product p where p.id in :ids")
+	List<Integer> lockExistingIds(@Param("ids") Collection<Integer> ids);
+
+	/**
+	 * Locks the given products whose price and quantity stay positive or zero
+	 * under an update by {@link #updatePriceAndQuantity}, until the end of the
+	 * transaction.
+	 *
+	 * @param ids            The IDs of the products.
+	 * @param priceFactor    The factor to multiply the price by.
+	 * @param priceShift     The amount to add to the multiplied price.
+	 * @param quantityFactor The factor to multiply the quantity by.
+	 * @param quantityShift  The amount to add to the multiplied quantity.
+	 * @return List of the locked IDs.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select p.id from Product p where p.id in :ids and p.price * :priceFactor + :priceShift >= 0 "
+			+ "and p.quantity * :quantityFactor + :quantityShift >= 0")
+	List<Integer> lockUpdatableIds(@Param("ids") Collection<Integer> ids, @Param("priceFactor") double priceFactor,
+			@Param("priceShift") double priceShift, @Param("quantityFactor") int quantityFactor,
+			@Param("quantityShift") int quantityShift);
+
+	/**
+	 * Updates the price and quantity of the given products in a single statement,
+	 * as {@code price * priceFactor + priceShift} and
+	 * {@code quantity * quantityFactor + quantityShift}. A factor of 1 and a shift
+	 * of 0 keep a value; a factor of 0 sets it to the shift. Products whose new
+	 * price or quantity would be negative are left unchanged.
+	 *
+	 * @param ids            The IDs of the products.
+	 * @param priceFactor    The factor to multiply the price by.
+	 * @param priceShift     The amount to add to the multiplied price.
+	 * @param quantityFactor The factor to multiply the quantity by.
+	 * @param quantityShift  The amount to add to the multiplied quantity.
+	 * @return The number of updated products.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Product p set p.price = p.price * :priceFactor + :priceShift, "
+			+ "p.quantity = p.quantity * :quantityFactor + :quantityShift "
+			+ "where p.id in :ids and p.price * :priceFactor + :priceShift >= 0 "
+			+ "and p.quantity * :quantityFactor + :quantityShift >= 0")
+	int updatePriceAndQuantity(@Param("ids") Collection<Integer> ids, @Param("priceFactor") double priceFactor,
+			@Param("priceShift") double priceShift, @Param("quantityFactor") int quantityFactor,
+			@Param("quantityShift") int quantityShift);
+
 }
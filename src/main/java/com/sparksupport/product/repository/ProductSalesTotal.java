@@ -0,0 +1,26 @@
+package com.sparksupport.product.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projection exposing the total quantity sold for a product, optionally on a
+ * single sale date.
+ */
+public interface ProductSalesTotal {
+
+	/**
+	 * @return The ID of the product.
+	 */
+	Integer getProductId();
+
+	/**
+	 * @return The sale date the total belongs to, or null for all-time totals.
+	 */
+	LocalDate getSaleDate();
+
+	/**
+	 * @return The total quantity sold.
+	 */
+	Long getQuantity();
+
+}
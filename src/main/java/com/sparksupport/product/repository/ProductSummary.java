@@ -0,0 +1,28 @@
+package com.sparksupport.product.repository;
+
+/**
+ * Projection exposing the basic details of a product without its sales.
+ */
+public interface ProductSummary {
+
+	/**
+	 * @return The ID of the product.
+	 */
+	Integer getId();
+
+	/**
+	 * @return The name of the product.
+	 */
+	String getName();
+
+	/**
+	 * @return The price of the product.
+	 */
+	Double getPrice();
+
+	/**
+	 * @return The available quantity of the product.
+	 */
+	Integer getQuantity();
+
+}
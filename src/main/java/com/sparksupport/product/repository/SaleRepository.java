@@ -1,6 +1,14 @@
 package com.sparksupport.product.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.sparksupport.product.entity.Sale;
 
@@ -9,4 +17,148 @@ import com.sparksupport.product.entity.Sale;
  */
 public interface SaleRepository extends JpaRepository<Sale, Integer> {
 
+	/**
+	 * Sums the quantity sold per product over all sales.
+	 *
+	 * @return List of ProductSalesTotal projections, one per product with sales.
+	 */
+	@Query("select s.product.id as productId, sum(s.quantity) as quantity from Sale s group by s.product.id")
+	List<ProductSalesTotal> sumQuantityByProduct();
+
+	/**
+	 * Sums the quantity sold per product and sale date for sales on or after the
+	 * given date.
+	 *
+	 * @param from The earliest sale date to include.
+	 * @return List of ProductSalesTotal projections, one per product and day.
+	 */
+	@Query("select s.product.id as productId, s.saleDate as saleDate, sum(s.quantity) as quantity from Sale s "
+			+ "where s.saleDate >= :from group by s.product.id, s.saleDate")
+	List<ProductSalesTotal> sumQuantityByProductAndDay(@Param("from") LocalDate from);
+
+	/**
+	 * Retrieves the next batch of sales ordered by ID, for scanning the sale table
+	 * without loading Sale entities.
+	 *
+	 * @param afterId  Only sales with an ID greater than this are returned.
+	 * @param pageable The batch size; the page number must be 0.
+	 * @return List of SaleRow projections ordered by ID.
+	 */
+	@Query("select s.id as id, s.product.id as productId, s.quantity as quantity, s.saleDate as saleDate "
+			+ "from Sale s where s.id > :afterId order by s.id")
+	List<SaleRow> findRowsAfter(@Param("afterId") int afterId, Pageable pageable);
+
+	/**
+	 * Retrieves the sales of several products in a single query without loading
+	 * Sale entities.
+	 *
+	 * @param productIds The IDs of the products.
+	 * @return List of SaleRow projections ordered by ID.
+	 */
+	@Query("select s.id as id, s.product.id as productId, s.quantity as quantity, s.saleDate as saleDate "
+			+ "from Sale s where s.product.id in :productIds order by s.id")
+	List<SaleRow> findRowsByProductIds(@Param("productIds") Collection<Integer> productIds);
+
+	/**
+	 * Retrieves which of the given sale IDs exist.
+	 *
+	 * @param ids The IDs of the sales.
+	 * @return List of the existing IDs.
+	 */
+	@Query("select s.id from Sale s where s.id in :ids")
+	List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+	/**
+	 * Deletes all sales of the given products in a single statement.
+	 *
+	 * @param productIds The IDs of the products.
+	 * @return The number of deleted sales.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Sale s where s.product.id in :productIds")
+	int deleteByProductIds(@Param("productIds") Collection<Integer> productIds);
+
+	/**
+	 * @return The lowest sale ID, or 0 if there are no sales.
+	 */
+	@Query("select coalesce(min(s.id), 0) from Sale s")
+	int findMinId();
+
+	/**
+	 * @return The highest sale ID, or 0 if there are no sales.
+	 */
+	@Query("select coalesce(max(s.id), 0) from Sale s")
+	int findMaxId();
+
+	/**
+	 * Sums the quantity sold per product and sale date for the sales in an ID
+	 * range and a date range, so that large aggregations can be split into
+	 * independent chunks.
+	 *
+	 * @param fromId   The lowest sale ID to include.
+	 * @param toId     The highest sale ID to include.
+	 * @param fromDate The earliest sale date to include.
+	 * @param toDate   The latest sale date to include.
+	 * @return List of ProductSalesTotal projections, one per product and day.
+	 */
+	@Query("select s.product.id as productId, s.saleDate as saleDate, sum(s.quantity) as quantity from Sale s "
+			+ "where s.id between :fromId and :toId and s.saleDate between :fromDate and :toDate "
+			+ "group by s.product.id, s.saleDate")
+	List<ProductSalesTotal> sumQuantityByProductAndDayInIdRange(@Param("fromId") int fromId,
+			@Param("toId") int toId, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+	/**
+	 * Sums the quantities sold per product and day of the given products, within
+	 * a sale ID range and a date range.
+	 *
+	 * @param fromId     The lowest sale ID to include.
+	 * @param toId       The highest sale ID to include.
+	 * @param fromDate   The earliest sale date to include.
+	 * @param toDate     The latest sale date to include.
+	 * @param productIds The IDs of the products to include.
+	 * @return List of ProductSalesTotal projections, one per product and day.
+	 */
+	@Query("select s.product.id as productId, s.saleDate as saleDate, sum(s.quantity) as quantity from Sale s "
+			+ "where s.id between :fromId and :toId and s.saleDate between :fromDate and :toDate "
+			+ "and s.product.id in :productIds group by s.product.id, s.saleDate")
+	List<ProductSalesTotal> sumQuantityByProductAndDayInIdRangeForProducts(@Param("fromId") int fromId,
+			@Param("toId") int toId, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+			@Param("productIds") Collection<Integer> productIds);
+
+	/**
+	 * Retrieves the next batch of sales older than a date ordered by sale date
+	 * and ID, for moving them to the archive in date order.
+	 *
+	 * @param before    Only sales before this date are returned.
+	 * @param afterDate The sale date of the last sale of the previous batch.
+	 * @param afterId   The ID of the last sale of the previous batch.
+	 * @param pageable  The batch size; the page number must be 0.
+	 * @return List of SaleRow projections ordered by sale date and ID.
+	 */
+	@Query("select s.id as id, s.product.id as productId, s.quantity as quantity, s.saleDate as saleDate "
+			+ "from Sale s where s.saleDate < :before "
+			+ "and (s.saleDate > :afterDate or (s.saleDate = :afterDate and s.id > :afterId)) "
+			+ "order by s.saleDate, s.id")
+	List<SaleRow> findRowsBefore(@Param("before") LocalDate before, @Param("afterDate") LocalDate afterDate,
+			@Param("afterId") int afterId, Pageable pageable);
+
+	/**
+	 * Deletes sales by ID in a single statement.
+	 *
+	 * @param ids The IDs of the sales.
+	 * @return The number of deleted sales.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Sale s where s.id in :ids")
+	int deleteByIds(@Param("ids") Collection<Integer> ids);
+
+	/**
+	 * Counts how many of the given sale IDs exist.
+	 *
+	 * @param ids The IDs of the sales.
+	 * @return The number of existing sales.
+	 */
+	@Query("select count(s) from Sale s where s.id in :ids")
+	long countByIds(@Param("ids") Collection<Integer> ids);
+
 }
@@ -0,0 +1,30 @@
+package com.sparksupport.product.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projection exposing the columns of a sale without loading its product.
+ */
+public interface SaleRow {
+
+	/**
+	 * @return The ID of the sale.
+	 */
+	Integer getId();
+
+	/**
+	 * @return The ID of the product the sale belongs to.
+	 */
+	Integer getProductId();
+
+	/**
+	 * @return The quantity sold.
+	 */
+	Integer getQuantity();
+
+	/**
+	 * @return The date of the sale.
+	 */
+	LocalDate getSaleDate();
+
+}
@@ -0,0 +1,139 @@
+package com.sparksupport.product.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.sparksupport.product.dto.BulkOperationResultDto;
+import com.sparksupport.product.dto.BulkUpdateDto;
+import com.sparksupport.product.dto.ProductBatchDto;
+import com.sparksupport.product.dto.ProductDto;
+import com.sparksupport.product.dto.ProductSelectionDto;
+import com.sparksupport.product.dto.SaleDto;
+import com.sparksupport.product.entity.Product;
+
+/**
+ * Service class coalescing identical concurrent product and revenue reads
+ * before they reach the transactional {@link ProductService}, so callers that
+ * wait for a shared execution do not hold a database connection.
+ */
+@Service
+@Primary
+public class CoalescingProductService implements IProductService {
+
+	/**
+	 * Operation name of {@link #getProductById(int)}.
+	 */
+	public static final String PRODUCT = "product";
+
+	/**
+	 * Operation name of {@link #getRevenueByProduct(int)}.
+	 */
+	public static final String REVENUE_BY_PRODUCT = "revenue-by-product";
+
+	/**
+	 * Operation name of {@link #getTotalRevenue()}.
+	 */
+	public static final String TOTAL_REVENUE = "total-revenue";
+
+	@Autowired
+	@Qualifier("productService")
+	private IProductService productService;
+
+	@Autowired
+	private SingleFlight singleFlight;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Page<ProductDto> getAllProducts(Pageable pageable) {
+		return productService.getAllProducts(pageable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ProductDto getProductById(int id) {
+		return singleFlight.execute(PRODUCT, id, () -> productService.getProductById(id),
+				CoalescingProductService::copyOf);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ProductBatchDto getProductsByIds(List<Integer> ids) {
+		return productService.getProductsByIds(ids);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ProductDto addProduct(Product product) {
+		return productService.addProduct(product);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ProductDto updateProduct(int id, Product product) {
+		return productService.updateProduct(id, product);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public String deleteProduct(int id) {
+		return productService.deleteProduct(id);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public BulkOperationResultDto bulkDeleteProducts(ProductSelectionDto selection) {
+		return productService.bulkDeleteProducts(selection);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public BulkOperationResultDto bulkUpdateProducts(BulkUpdateDto update) {
+		return productService.bulkUpdateProducts(update);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public double getTotalRevenue() {
+		return singleFlight.execute(TOTAL_REVENUE, "", productService::getTotalRevenue);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public double getRevenueByProduct(int productId) {
+		return singleFlight.execute(REVENUE_BY_PRODUCT, productId, () -> productService.getRevenueByProduct(productId));
+	}
+
+	/**
+	 * Copies a product with its sales, so that callers sharing a coalesced call
+	 * cannot change each other's result.
+	 */
+	static ProductDto copyOf(ProductDto product) {
+		List<SaleDto> sales = null;
+		if (product.getSales() != null) {
+			sales = new ArrayList<>(product.getSales().size());
+			for (SaleDto sale : product.getSales()) {
+				sales.add(new SaleDto(sale.getId(), sale.getQuantity(), sale.getSaleDate()));
+			}
+		}
+		return new ProductDto(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+				product.getQuantity(), sales);
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.sparksupport.product.service;
+
+import java.util.List;
+
+import com.sparksupport.product.dto.LeaderboardEntryDto;
+import com.sparksupport.product.exception.InvalidRequestException;
+
+public interface ILeaderboardService {
+
+	/**
+	 * Retrieves the best-selling products within a time window.
+	 *
+	 * @param metric The metric to rank products by.
+	 * @param window The time window to rank sales in.
+	 * @param limit  The maximum number of products to return.
+	 * @return The ranked products, best first.
+	 * @throws InvalidRequestException If the limit is not between 1 and the
+	 *                                 configured maximum.
+	 */
+	public List<LeaderboardEntryDto> getTopProducts(LeaderboardMetric metric, LeaderboardWindow window, int limit);
+
+	/**
+	 * Rebuilds the leaderboard from the product and sale tables.
+	 */
+	public void reload();
+
+}
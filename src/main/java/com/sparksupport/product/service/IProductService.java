@@ -1,10 +1,17 @@
 package com.sparksupport.product.service;
 
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.sparksupport.product.dto.BulkOperationResultDto;
+import com.sparksupport.product.dto.BulkUpdateDto;
+import com.sparksupport.product.dto.ProductBatchDto;
 import com.sparksupport.product.dto.ProductDto;
+import com.sparksupport.product.dto.ProductSelectionDto;
 import com.sparksupport.product.entity.Product;
+import com.sparksupport.product.exception.InvalidRequestException;
 import com.sparksupport.product.exception.ProductNotFoundException;
 import com.sparksupport.product.exception.ProductOperationException;
 
@@ -28,6 +35,18 @@ public interface IProductService {
 	 */
 	public ProductDto getProductById(int id);
 
+	/**
+	 * Retrieves several products by their IDs using one product query and one
+	 * sales query.
+	 *
+	 * @param ids The IDs of the products to retrieve.
+	 * @return The ProductBatchDto with the found products in request order and the
+	 *         IDs that were not found.
+	 * @throws InvalidRequestException If a null ID, no IDs or more distinct IDs
+	 *                                 than the configured maximum are given.
+	 */
+	public ProductBatchDto getProductsByIds(List<Integer> ids);
+
 	/**
 	 * Adds a new product and associates any sales with it.
 	 *
@@ -61,6 +80,32 @@ public interface IProductService {
 	 */
 	public String deleteProduct(int id);
 
+	/**
+	 * Deletes all selected products and their sales with set-based DELETE
+	 * statements.
+	 *
+	 * @param selection The products to delete.
+	 * @return The BulkOperationResultDto with the affected row counts and skipped IDs.
+	 * @throws InvalidRequestException   If the selection has no conditions.
+	 * @throws ProductOperationException If an error occurs while deleting the
+	 *                                   products.
+	 */
+	public BulkOperationResultDto bulkDeleteProducts(ProductSelectionDto selection);
+
+	/**
+	 * Updates the price and/or quantity of all selected products with set-based
+	 * UPDATE statements. Products whose price or quantity would become negative
+	 * are left unchanged.
+	 *
+	 * @param update The selection and the changes to apply.
+	 * @return The BulkOperationResultDto with the affected row counts and skipped IDs.
+	 * @throws InvalidRequestException   If the selection has no conditions or the
+	 *                                   changes are missing or conflicting.
+	 * @throws ProductOperationException If an error occurs while updating the
+	 *                                   products.
+	 */
+	public BulkOperationResultDto bulkUpdateProducts(BulkUpdateDto update);
+
 	/**
 	 * Calculates the total revenue generated by all sales.
 	 *
@@ -0,0 +1,52 @@
+package com.sparksupport.product.service;
+
+import com.sparksupport.product.dto.ReportJobDto;
+import com.sparksupport.product.dto.ReportResultDto;
+import com.sparksupport.product.dto.ReportSpecDto;
+import com.sparksupport.product.exception.InvalidRequestException;
+import com.sparksupport.product.exception.ReportNotCompletedException;
+import com.sparksupport.product.exception.ReportNotFoundException;
+import com.sparksupport.product.exception.ServiceOverloadedException;
+
+public interface IReportService {
+
+	/**
+	 * Submits a report for asynchronous generation.
+	 *
+	 * @param spec The report specification.
+	 * @return The ReportJobDto of the accepted job.
+	 * @throws InvalidRequestException    If the specification is invalid.
+	 * @throws ServiceOverloadedException If the maximum number of concurrent jobs
+	 *                                    is already running.
+	 */
+	public ReportJobDto submitReport(ReportSpecDto spec);
+
+	/**
+	 * Retrieves the state and progress of a report job.
+	 *
+	 * @param jobId The ID of the job.
+	 * @return The ReportJobDto of the job.
+	 * @throws ReportNotFoundException If no job with the specified ID exists.
+	 */
+	public ReportJobDto getReportJob(String jobId);
+
+	/**
+	 * Retrieves the result of a completed report job.
+	 *
+	 * @param jobId The ID of the job.
+	 * @return The ReportResultDto of the job.
+	 * @throws ReportNotFoundException     If no job with the specified ID exists.
+	 * @throws ReportNotCompletedException If the job has not completed.
+	 */
+	public ReportResultDto getReportResult(String jobId);
+
+	/**
+	 * Cancels a report job that has not finished.
+	 *
+	 * @param jobId The ID of the job.
+	 * @return The ReportJobDto of the job.
+	 * @throws ReportNotFoundException If no job with the specified ID exists.
+	 */
+	public ReportJobDto cancelReport(String jobId);
+
+}
@@ -0,0 +1,40 @@
+package com.sparksupport.product.service;
+
+import com.sparksupport.product.dto.HeavyHittersDto;
+import com.sparksupport.product.dto.ProductStatsDto;
+import com.sparksupport.product.exception.InvalidRequestException;
+import com.sparksupport.product.exception.OperationInProgressException;
+import com.sparksupport.product.exception.ProductNotFoundException;
+
+public interface ISalesStatsService {
+
+	/**
+	 * Retrieves sketch-based sales statistics of a product.
+	 *
+	 * @param productId The ID of the product.
+	 * @return The ProductStatsDto of the product.
+	 * @throws ProductNotFoundException If the product with the specified ID is not
+	 *                                  found.
+	 */
+	public ProductStatsDto getProductStats(int productId);
+
+	/**
+	 * Retrieves the products with the most units sold.
+	 *
+	 * @param limit The maximum number of products to return.
+	 * @return The HeavyHittersDto with the products and the error bounds.
+	 * @throws InvalidRequestException If the limit is not between 1 and the
+	 *                                 number of tracked candidates.
+	 */
+	public HeavyHittersDto getHeavyHitters(int limit);
+
+	/**
+	 * Rebuilds all sketches by scanning the sale table and the archived sales of
+	 * existing products. Waits for a running archive operation to finish first.
+	 *
+	 * @return The number of live and archived sales scanned.
+	 * @throws OperationInProgressException If a rebuild is already running.
+	 */
+	public long rebuild();
+
+}
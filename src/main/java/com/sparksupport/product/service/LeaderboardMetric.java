@@ -0,0 +1,37 @@
+package com.sparksupport.product.service;
+
+import java.util.Locale;
+
+import com.sparksupport.product.exception.InvalidRequestException;
+
+/**
+ * Metrics by which products can be ranked on the sales leaderboard.
+ */
+public enum LeaderboardMetric {
+
+	/**
+	 * Rank by revenue (units sold multiplied by the current product price).
+	 */
+	REVENUE,
+
+	/**
+	 * Rank by number of units sold.
+	 */
+	UNITS;
+
+	/**
+	 * Resolves a metric from its case-insensitive name.
+	 *
+	 * @param value The name of the metric.
+	 * @return The matching LeaderboardMetric.
+	 * @throws InvalidRequestException If no metric matches the given name.
+	 */
+	public static LeaderboardMetric from(String value) {
+		try {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (RuntimeException e) {
+			throw new InvalidRequestException("Unknown leaderboard metric: " + value);
+		}
+	}
+
+}
@@ -0,0 +1,292 @@
+package com.sparksupport.product.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sparksupport.product.archive.ArchiveView;
+import com.sparksupport.product.archive.IArchiveService;
+import com.sparksupport.product.dto.LeaderboardEntryDto;
+import com.sparksupport.product.event.ProductDeletedEvent;
+import com.sparksupport.product.event.ProductUpdatedEvent;
+import com.sparksupport.product.event.SaleRecordedEvent;
+import com.sparksupport.product.exception.InvalidRequestException;
+import com.sparksupport.product.exception.ServiceOverloadedException;
+import com.sparksupport.product.repository.ProductRepository;
+import com.sparksupport.product.repository.ProductSalesTotal;
+import com.sparksupport.product.repository.ProductSummary;
+import com.sparksupport.product.repository.SaleRepository;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Service class maintaining the sales leaderboard. The leaderboard is
+ * warm-loaded from aggregated queries on a background thread once the
+ * application is ready, and then kept up to date from product and sale events
+ * after their transaction commits. Until the warm-load completes, queries are
+ * rejected as the service being unavailable. Archived sales of existing
+ * products are added to the aggregates.
+ * <p>
+ * A reload runs its queries in one repeatable-read transaction, which also
+ * selects the archive segments matching its snapshot. Events that arrive
+ * meanwhile are buffered, and once the queries are done the same snapshot tells
+ * which buffered sales it already contains; only the others are replayed onto
+ * the reloaded leaderboard. The leaderboard is locked only for the replay, never
+ * for a query.
+ */
+@Service
+@Log4j2
+public class LeaderboardService implements ILeaderboardService {
+
+	/**
+	 * Rounds of looking up buffered sales in the reload snapshot. A sale is
+	 * announced right after its commit, so sales still buffered after these rounds
+	 * committed after the snapshot, like those announced after a reload.
+	 */
+	private static final int LOOKUP_ROUNDS = 3;
+
+	private static final long WARM_UP_RETRY_SECONDS = 5;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private SaleRepository saleRepository;
+
+	@Autowired
+	private IArchiveService archiveService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${sparksupport.leaderboard.max-limit:100}")
+	private int maxLimit;
+
+	@Value("${sparksupport.bulk.chunk-size:1000}")
+	private int chunkSize;
+
+	private final SalesLeaderboard leaderboard = new SalesLeaderboard(LocalDate.now());
+
+	private final Object reloadLock = new Object();
+
+	/**
+	 * Events received while a reload is running, in arrival order; guarded by the
+	 * leaderboard.
+	 */
+	private List<Object> pendingEvents;
+
+	/**
+	 * Whether a load has completed since startup.
+	 */
+	private volatile boolean loaded;
+
+	/**
+	 * Starts loading the leaderboard in the background once the application is
+	 * ready to serve requests.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	void warmUp() {
+		Thread thread = new Thread(() -> {
+			try {
+				reload();
+			} catch (Exception e) {
+				log.error("Unable to warm-load the sales leaderboard", e);
+			}
+		}, "leaderboard-warm-up");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void reload() {
+		synchronized (reloadLock) {
+			synchronized (leaderboard) {
+				pendingEvents = new ArrayList<>();
+			}
+			try {
+				TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+				snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+				snapshot.setReadOnly(true);
+				snapshot.executeWithoutResult(status -> load());
+			} finally {
+				synchronized (leaderboard) {
+					pendingEvents = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Replaces the leaderboard with the aggregates of the current snapshot and
+	 * replays the buffered events it does not contain. Runs inside the reload
+	 * transaction.
+	 */
+	private void load() {
+		LocalDate today = LocalDate.now();
+		List<ProductSummary> products = productRepository.findAllSummaries();
+		List<ProductSalesTotal> allTime = saleRepository.sumQuantityByProduct();
+		List<ProductSalesTotal> daily = saleRepository.sumQuantityByProductAndDay(leaderboard.horizonStart(today));
+		// After the queries, so the archive matches their snapshot
+		ArchiveView archive = archiveService.getCommittedView();
+		Set<Integer> productIds = products.stream().map(ProductSummary::getId).collect(Collectors.toSet());
+		Map<Integer, Map<LocalDate, Long>> archivedDaily = new HashMap<>();
+		archive.forEachSale(leaderboard.horizonStart(today), null, productIds,
+				(saleId, productId, quantity, epochDay) -> archivedDaily
+						.computeIfAbsent(productId, id -> new HashMap<>())
+						.merge(LocalDate.ofEpochDay(epochDay), (long) quantity, Long::sum));
+
+		// Which buffered sales the snapshot already holds is looked up without holding
+		// the leaderboard, so event listeners never wait for a query
+		Set<Integer> seenSaleIds = new HashSet<>();
+		int checked = 0;
+		for (int round = 0; round < LOOKUP_ROUNDS; round++) {
+			List<Integer> saleIds = new ArrayList<>();
+			synchronized (leaderboard) {
+				for (Object event : pendingEvents.subList(checked, pendingEvents.size())) {
+					if (event instanceof SaleRecordedEvent sale) {
+						saleIds.add(sale.getSaleId());
+					}
+				}
+				checked = pendingEvents.size();
+			}
+			if (saleIds.isEmpty()) {
+				break;
+			}
+			for (int from = 0; from < saleIds.size(); from += chunkSize) {
+				seenSaleIds.addAll(saleRepository.findExistingIds(
+						saleIds.subList(from, Math.min(from + chunkSize, saleIds.size()))));
+			}
+		}
+
+		synchronized (leaderboard) {
+			leaderboard.clear(today);
+			for (ProductSummary product : products) {
+				leaderboard.putProduct(product.getId(), product.getName(), product.getPrice());
+			}
+			for (ProductSalesTotal total : allTime) {
+				leaderboard.addAllTimeUnits(total.getProductId(), total.getQuantity());
+			}
+			for (ProductSalesTotal total : daily) {
+				leaderboard.addDailyUnits(total.getProductId(), total.getSaleDate(), total.getQuantity());
+			}
+			// Archived sales of deleted products no longer count
+			archive.getUnitsByProduct().forEach((productId, units) -> {
+				if (productIds.contains(productId)) {
+					leaderboard.addAllTimeUnits(productId, units);
+				}
+			});
+			archivedDaily.forEach((productId, days) -> days
+					.forEach((saleDate, units) -> leaderboard.addDailyUnits(productId, saleDate, units)));
+			for (Object event : pendingEvents) {
+				if (event instanceof SaleRecordedEvent sale) {
+					if (!seenSaleIds.contains(sale.getSaleId())) {
+						apply(sale);
+					}
+				} else if (event instanceof ProductUpdatedEvent update) {
+					apply(update);
+				} else if (event instanceof ProductDeletedEvent delete) {
+					apply(delete);
+				}
+			}
+			loaded = true;
+			log.info("Sales leaderboard loaded with {} products and {} replayed events", products.size(),
+					pendingEvents.size());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<LeaderboardEntryDto> getTopProducts(LeaderboardMetric metric, LeaderboardWindow window, int limit) {
+		if (limit < 1 || limit > maxLimit) {
+			throw new InvalidRequestException("Limit must be between 1 and " + maxLimit);
+		}
+		if (!loaded) {
+			throw new ServiceOverloadedException("The sales leaderboard is still loading", WARM_UP_RETRY_SECONDS);
+		}
+		return leaderboard.top(metric, window, limit, LocalDate.now()).stream()
+				.map(ranked -> new LeaderboardEntryDto(ranked.rank(), ranked.productId(), ranked.name(),
+						ranked.units(), ranked.revenue()))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Adds a committed sale to the leaderboard.
+	 *
+	 * @param event The sale event.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onSaleRecorded(SaleRecordedEvent event) {
+		synchronized (leaderboard) {
+			apply(event);
+			buffer(event);
+		}
+	}
+
+	/**
+	 * Re-ranks a product after its name or price has changed.
+	 *
+	 * @param event The update event.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductUpdated(ProductUpdatedEvent event) {
+		synchronized (leaderboard) {
+			apply(event);
+			buffer(event);
+		}
+	}
+
+	/**
+	 * Removes a deleted product from the leaderboard.
+	 *
+	 * @param event The delete event.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductDeleted(ProductDeletedEvent event) {
+		synchronized (leaderboard) {
+			apply(event);
+			buffer(event);
+		}
+	}
+
+	private void apply(SaleRecordedEvent event) {
+		leaderboard.putProduct(event.getProductId(), event.getProductName(), event.getPrice());
+		leaderboard.recordSale(event.getProductId(), event.getSaleDate(), event.getQuantity(), LocalDate.now());
+	}
+
+	private void apply(ProductUpdatedEvent event) {
+		leaderboard.putProduct(event.getProductId(), event.getName(), event.getPrice());
+	}
+
+	private void apply(ProductDeletedEvent event) {
+		leaderboard.removeProduct(event.getProductId());
+	}
+
+	/**
+	 * Keeps an event for replay if a reload is running. Called with the
+	 * leaderboard locked.
+	 */
+	private void buffer(Object event) {
+		if (pendingEvents != null) {
+			pendingEvents.add(event);
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.sparksupport.product.service;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+import com.sparksupport.product.exception.InvalidRequestException;
+
+/**
+ * Time windows over which the sales leaderboard can be queried. Bounded
+ * windows cover the given number of days up to and including today.
+ */
+public enum LeaderboardWindow {
+
+	/**
+	 * Sales made today.
+	 */
+	DAY(1),
+
+	/**
+	 * Sales made during the last 7 days.
+	 */
+	WEEK(7),
+
+	/**
+	 * Sales made during the last 30 days.
+	 */
+	MONTH(30),
+
+	/**
+	 * All sales ever recorded.
+	 */
+	ALL(0);
+
+	private final int days;
+
+	LeaderboardWindow(int days) {
+		this.days = days;
+	}
+
+	/**
+	 * @return The length of the window in days, or 0 if the window is unbounded.
+	 */
+	public int getDays() {
+		return days;
+	}
+
+	/**
+	 * @return True if the window covers all sales regardless of date.
+	 */
+	public boolean isUnbounded() {
+		return days == 0;
+	}
+
+	/**
+	 * Checks whether a sale date falls into this window.
+	 *
+	 * @param saleDate The date of the sale.
+	 * @param today    The current date.
+	 * @return True if the sale is counted in this window.
+	 */
+	public boolean contains(LocalDate saleDate, LocalDate today) {
+		return isUnbounded() || (!saleDate.isAfter(today) && saleDate.isAfter(today.minusDays(days)));
+	}
+
+	/**
+	 * @return The length in days of the longest bounded window.
+	 */
+	public static int maxBoundedDays() {
+		int max = 0;
+		for (LeaderboardWindow window : values()) {
+			max = Math.max(max, window.days);
+		}
+		return max;
+	}
+
+	/**
+	 * Resolves a window from its case-insensitive name.
+	 *
+	 * @param value The name of the window.
+	 * @return The matching LeaderboardWindow.
+	 * @throws InvalidRequestException If no window matches the given name.
+	 */
+	public static LeaderboardWindow from(String value) {
+		try {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (RuntimeException e) {
+			throw new InvalidRequestException("Unknown leaderboard window: " + value);
+		}
+	}
+
+}
@@ -1,26 +1,52 @@
 package com.sparksupport.product.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.sparksupport.product.archive.IArchiveService;
+import com.sparksupport.product.dto.BulkOperationResultDto;
+import com.sparksupport.product.dto.BulkUpdateDto;
+import com.sparksupport.product.dto.ProductBatchDto;
 import com.sparksupport.product.dto.ProductDto;
+import com.sparksupport.product.dto.ProductSelectionDto;
 import com.sparksupport.product.dto.SaleDto;
 import com.sparksupport.product.entity.Product;
 import com.sparksupport.product.entity.Sale;
+import com.sparksupport.product.event.ProductAddedEvent;
+import com.sparksupport.product.event.ProductDeletedEvent;
+import com.sparksupport.product.event.ProductUpdatedEvent;
+import com.sparksupport.product.event.SaleRecordedEvent;
+import com.sparksupport.product.exception.InvalidRequestException;
 import com.sparksupport.product.exception.ProductNotFoundException;
 import com.sparksupport.product.exception.ProductOperationException;
 import com.sparksupport.product.repository.ProductRepository;
+import com.sparksupport.product.repository.ProductSummary;
 import com.sparksupport.product.repository.SaleRepository;
-
-import jakarta.transaction.Transactional;
+import com.sparksupport.product.repository.SaleRow;
 
 /**
  * Service class for managing Product entities and related operations.
+ * <p>
+ * Reads that combine live sales with archived ones run in a read-only
+ * REPEATABLE READ transaction, so the archived segments they see match the
+ * snapshot of the sale table.
  */
 @Service
 @Transactional
@@ -32,9 +58,22 @@ public class ProductService implements IProductService {
 	@Autowired
 	private SaleRepository saleRepository;
 
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private IArchiveService archiveService;
+
+	@Value("${sparksupport.batch.max-ids:100}")
+	private int maxBatchIds;
+
+	@Value("${sparksupport.bulk.chunk-size:1000}")
+	private int bulkChunkSize;
+
 	/**
 	 * {@inheritDoc}
 	 */
+	@Transactional(isolation = Isolation.REPEATABLE_READ, readOnly = true)
 	public Page<ProductDto> getAllProducts(Pageable pageable) {
 
 		// Add sorting by product name in ascending order
@@ -42,32 +81,89 @@ public class ProductService implements IProductService {
 //	            Sort.by(Sort.Direction.ASC, "name"));
 
 		Page<Product> productPage = productRepository.findAll(pageable);
-		return productPage.map(this::mapProductToProductDto);
+		Page<ProductDto> productDtoPage = productPage.map(this::mapProductToProductDto);
+		addArchivedSales(productDtoPage.getContent());
+		return productDtoPage;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
+	@Transactional(isolation = Isolation.REPEATABLE_READ, readOnly = true)
 	public ProductDto getProductById(int id) {
 
 		Product product = productRepository.findById(id)
 				.orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
 
-		return mapProductToProductDto(product);
+		ProductDto productDto = mapProductToProductDto(product);
+		addArchivedSales(List.of(productDto));
+		return productDto;
 
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Transactional(isolation = Isolation.REPEATABLE_READ, readOnly = true)
+	public ProductBatchDto getProductsByIds(List<Integer> ids) {
+		if (ids == null || ids.stream().anyMatch(Objects::isNull)) {
+			throw new InvalidRequestException("Product ids must be given and must not be null");
+		}
+		// Duplicates don't count towards the limit, as each product is loaded once
+		Set<Integer> requestedIds = new LinkedHashSet<>(ids);
+		if (requestedIds.isEmpty() || requestedIds.size() > maxBatchIds) {
+			throw new InvalidRequestException("Between 1 and " + maxBatchIds + " product ids must be given");
+		}
+
+		Map<Integer, Product> products = productRepository.findAllById(requestedIds).stream()
+				.collect(Collectors.toMap(Product::getId, Function.identity()));
+		// One query for the sales of all found products instead of a lazy load per product
+		Map<Integer, List<SaleDto>> salesByProduct = products.isEmpty() ? Collections.emptyMap()
+				: saleRepository.findRowsByProductIds(products.keySet()).stream()
+						.collect(Collectors.groupingBy(SaleRow::getProductId,
+								Collectors.mapping(this::mapSaleRowToSaleDto, Collectors.toList())));
+
+		List<ProductDto> productDtos = new ArrayList<>(products.size());
+		List<Integer> missingIds = new ArrayList<>();
+		for (Integer id : requestedIds) {
+			Product product = products.get(id);
+			if (product == null) {
+				missingIds.add(id);
+			} else {
+				ProductDto productDto = mapProductDetailsToProductDto(product);
+				productDto.setSales(salesByProduct.getOrDefault(id, new ArrayList<>()));
+				productDtos.add(productDto);
+			}
+		}
+		addArchivedSales(productDtos);
+		return new ProductBatchDto(productDtos, missingIds);
+	}
+
+	/**
+	 * Puts the archived sales of each product in front of its live ones. Called
+	 * after the live sales were read, so the archive matches their snapshot.
+	 *
+	 * @param productDtos The mapped products.
+	 */
+	private void addArchivedSales(List<ProductDto> productDtos) {
+		Map<Integer, List<SaleDto>> archivedSales = archiveService.getCommittedView()
+				.getSales(productDtos.stream().map(ProductDto::getId).collect(Collectors.toList()));
+		for (ProductDto productDto : productDtos) {
+			List<SaleDto> archived = archivedSales.get(productDto.getId());
+			if (archived != null) {
+				if (productDto.getSales() != null) {
+					archived.addAll(productDto.getSales());
+				}
+				productDto.setSales(archived);
+			}
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	private ProductDto mapProductToProductDto(Product product) {
-		ProductDto productDto = new ProductDto();
-		// Map basic properties
-		productDto.setId(product.getId());
-		productDto.setName(product.getName());
-		productDto.setDescription(product.getDescription());
-		productDto.setPrice(product.getPrice());
-		productDto.setQuantity(product.getQuantity());
+		ProductDto productDto = mapProductDetailsToProductDto(product);
 
 		if (product.getSales() != null) {
 			List<SaleDto> saleDtos = product.getSales().stream().map(this::mapSaleToSaleDto)
@@ -78,6 +174,24 @@ public class ProductService implements IProductService {
 		return productDto;
 	}
 
+	/**
+	 * Maps the basic properties of a Product entity to a ProductDto without
+	 * touching its sales.
+	 *
+	 * @param product The Product entity to map.
+	 * @return The corresponding ProductDto without sales.
+	 */
+	private ProductDto mapProductDetailsToProductDto(Product product) {
+		ProductDto productDto = new ProductDto();
+		// Map basic properties
+		productDto.setId(product.getId());
+		productDto.setName(product.getName());
+		productDto.setDescription(product.getDescription());
+		productDto.setPrice(product.getPrice());
+		productDto.setQuantity(product.getQuantity());
+		return productDto;
+	}
+
 	/**
 	 * Maps a Sale entity to its DTO representation.
 	 *
@@ -93,16 +207,30 @@ public class ProductService implements IProductService {
 		return saleDto;
 	}
 
+	/**
+	 * Maps a SaleRow projection to its DTO representation.
+	 *
+	 * @param row The SaleRow to map.
+	 * @return The corresponding SaleDto.
+	 */
+	private SaleDto mapSaleRowToSaleDto(SaleRow row) {
+		return new SaleDto(row.getId(), row.getQuantity(), row.getSaleDate());
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	public ProductDto addProduct(Product product) {
 		try {
 			Product savedProduct = productRepository.save(product);
+			eventPublisher.publishEvent(new ProductAddedEvent(savedProduct.getId(), savedProduct.getName(),
+					savedProduct.getPrice(), savedProduct.getQuantity()));
 
 			addSalesForProduct(savedProduct);
 			if (product != null) {
-				return mapProductToProductDto(savedProduct);
+				ProductDto productDto = mapProductToProductDto(savedProduct);
+				addArchivedSales(List.of(productDto));
+				return productDto;
 			}
 			return null;
 		} catch (Exception e) {
@@ -121,6 +249,8 @@ public class ProductService implements IProductService {
 			for (Sale sale : product.getSales()) {
 				sale.setProduct(product); // Set the reference to the Product
 				saleRepository.save(sale);
+				eventPublisher.publishEvent(new SaleRecordedEvent(sale.getId(), product.getId(),
+						product.getName(), product.getPrice(), sale.getQuantity(), sale.getSaleDate()));
 			}
 		}
 	}
@@ -139,8 +269,13 @@ public class ProductService implements IProductService {
 
 		try {
 			Product savedProduct = productRepository.save(existingProduct);
+			eventPublisher.publishEvent(
+					new ProductUpdatedEvent(savedProduct.getId(), savedProduct.getName(), savedProduct.getPrice(),
+							savedProduct.getQuantity()));
 
-			return mapProductToProductDto(savedProduct);
+			ProductDto productDto = mapProductToProductDto(savedProduct);
+			addArchivedSales(List.of(productDto));
+			return productDto;
 
 		} catch (Exception e) {
 			// Handle specific exceptions or log the error
@@ -153,7 +288,12 @@ public class ProductService implements IProductService {
 	 */
 	public String deleteProduct(int id) {
 		try {
-			productRepository.deleteById(id);
+			// Set-based deletes instead of loading and removing every cascaded sale
+			List<Integer> ids = List.of(id);
+			saleRepository.deleteByProductIds(ids);
+			if (productRepository.deleteByIds(ids) > 0) {
+				eventPublisher.publishEvent(new ProductDeletedEvent(id));
+			}
 			return "Product removed: " + id;
 		} catch (Exception e) {
 			// Handle specific exceptions or log the error
@@ -161,9 +301,147 @@ public class ProductService implements IProductService {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public BulkOperationResultDto bulkDeleteProducts(ProductSelectionDto selection) {
+		List<Integer> ids = resolveSelection(selection);
+		List<Integer> deletedIds = new ArrayList<>(ids.size());
+		int deletedSales = 0;
+		try {
+			for (List<Integer> chunk : partition(ids)) {
+				// Locked rows cannot vanish before the delete, so exactly these are removed
+				List<Integer> lockedIds = productRepository.lockExistingIds(chunk);
+				if (!lockedIds.isEmpty()) {
+					deletedSales += saleRepository.deleteByProductIds(lockedIds);
+					productRepository.deleteByIds(lockedIds);
+					deletedIds.addAll(lockedIds);
+				}
+			}
+		} catch (Exception e) {
+			throw new ProductOperationException("Error deleting products", e);
+		}
+		deletedIds.forEach(id -> eventPublisher.publishEvent(new ProductDeletedEvent(id)));
+		return new BulkOperationResultDto(ids.size(), deletedIds.size(), deletedSales, skippedIds(ids, deletedIds));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public BulkOperationResultDto bulkUpdateProducts(BulkUpdateDto update) {
+		if (update.getPrice() != null && update.getPriceFactor() != null) {
+			throw new InvalidRequestException("Only one of price and priceFactor can be given");
+		}
+		if (update.getQuantity() != null && update.getQuantityDelta() != null) {
+			throw new InvalidRequestException("Only one of quantity and quantityDelta can be given");
+		}
+		if (update.getPrice() == null && update.getPriceFactor() == null && update.getQuantity() == null
+				&& update.getQuantityDelta() == null) {
+			throw new InvalidRequestException("No price or quantity change given");
+		}
+		if ((update.getPrice() != null && update.getPrice() < 0)
+				|| (update.getQuantity() != null && update.getQuantity() < 0)) {
+			throw new InvalidRequestException("Price and quantity must be positive or zero");
+		}
+		List<Integer> ids = resolveSelection(update.getSelection());
+
+		// Express every change as value * factor + shift so it fits a single UPDATE
+		double priceFactor = update.getPrice() != null ? 0
+				: (update.getPriceFactor() != null ? update.getPriceFactor() : 1);
+		double priceShift = update.getPrice() != null ? update.getPrice() : 0;
+		int quantityFactor = update.getQuantity() != null ? 0 : 1;
+		int quantityShift = update.getQuantity() != null ? update.getQuantity()
+				: (update.getQuantityDelta() != null ? update.getQuantityDelta() : 0);
+
+		List<Integer> updatedIds = new ArrayList<>(ids.size());
+		try {
+			for (List<Integer> chunk : partition(ids)) {
+				// Only rows that still exist and stay non-negative are locked, updated and announced
+				List<Integer> lockedIds = productRepository.lockUpdatableIds(chunk, priceFactor, priceShift,
+						quantityFactor, quantityShift);
+				if (!lockedIds.isEmpty()) {
+					productRepository.updatePriceAndQuantity(lockedIds, priceFactor, priceShift, quantityFactor,
+							quantityShift);
+					productRepository.findSummariesByIds(lockedIds)
+							.forEach(summary -> eventPublisher.publishEvent(new ProductUpdatedEvent(summary.getId(),
+									summary.getName(), summary.getPrice(), summary.getQuantity())));
+					updatedIds.addAll(lockedIds);
+				}
+			}
+		} catch (Exception e) {
+			throw new ProductOperationException("Error updating products", e);
+		}
+		return new BulkOperationResultDto(ids.size(), updatedIds.size(), 0, skippedIds(ids, updatedIds));
+	}
+
+	/**
+	 * Resolves a selection to the IDs of the existing products it matches.
+	 *
+	 * @param selection The selection to resolve.
+	 * @return The matching product IDs in ascending order.
+	 * @throws InvalidRequestException If the selection has no conditions.
+	 */
+	private List<Integer> resolveSelection(ProductSelectionDto selection) {
+		if (selection == null || selection.isEmpty()) {
+			throw new InvalidRequestException("At least one selection condition must be given");
+		}
+		List<Integer> requestedIds = selection.getIds() == null || selection.getIds().isEmpty() ? null
+				: new ArrayList<>(new LinkedHashSet<>(selection.getIds()));
+
+		if (selection.hasCriteria()) {
+			List<Integer> ids = new ArrayList<>(productRepository.findIdsByCriteria(
+					escapeLike(selection.getNameContains()), selection.getMinPrice(), selection.getMaxPrice()));
+			if (requestedIds != null) {
+				ids.retainAll(new HashSet<>(requestedIds));
+			}
+			return ids;
+		}
+		List<Integer> ids = new ArrayList<>(requestedIds.size());
+		for (List<Integer> chunk : partition(requestedIds)) {
+			ids.addAll(productRepository.findExistingIds(chunk));
+		}
+		return ids;
+	}
+
+	/**
+	 * Escapes the wildcards of a LIKE pattern, so that the text matches literally.
+	 *
+	 * @param text The text, or null.
+	 * @return The text with {@code !}, {@code %} and {@code _} escaped by
+	 *         {@code !}, or null.
+	 */
+	private static String escapeLike(String text) {
+		return text == null ? null : text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+	}
+
+	/**
+	 * @param matchedIds  The IDs matched by a bulk selection.
+	 * @param affectedIds The IDs the bulk statement changed.
+	 * @return The matched IDs that were not changed, in ascending order.
+	 */
+	private List<Integer> skippedIds(List<Integer> matchedIds, List<Integer> affectedIds) {
+		Set<Integer> affected = new HashSet<>(affectedIds);
+		return matchedIds.stream().filter(id -> !affected.contains(id)).sorted().collect(Collectors.toList());
+	}
+
+	/**
+	 * Splits IDs into chunks that keep IN lists of bulk statements bounded.
+	 *
+	 * @param ids The IDs to split.
+	 * @return The chunks, each a view of the given list.
+	 */
+	private List<List<Integer>> partition(List<Integer> ids) {
+		List<List<Integer>> chunks = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+			chunks.add(ids.subList(from, Math.min(from + bulkChunkSize, ids.size())));
+		}
+		return chunks;
+	}
+
 	/**
 	 * C{@inheritDoc}
 	 */
+	@Transactional(isolation = Isolation.REPEATABLE_READ, readOnly = true)
 	public double getTotalRevenue() {
 		List<Sale> allSales = saleRepository.findAll();
 		double totalRevenue = 0.0;
@@ -172,6 +450,14 @@ public class ProductService implements IProductService {
 			totalRevenue += sale.getQuantity() * sale.getProduct().getPrice();
 		}
 
+		// Archived units at the current price; sales of deleted products no longer count
+		Map<Integer, Long> archivedUnits = archiveService.getCommittedView().getUnitsByProduct();
+		for (List<Integer> chunk : partition(new ArrayList<>(archivedUnits.keySet()))) {
+			for (ProductSummary product : productRepository.findSummariesByIds(chunk)) {
+				totalRevenue += archivedUnits.get(product.getId()) * product.getPrice();
+			}
+		}
+
 		return totalRevenue;
 	}
 
@@ -179,22 +465,22 @@ public class ProductService implements IProductService {
 	 * {@inheritDoc}
 	 * 
 	 */
+	@Transactional(isolation = Isolation.REPEATABLE_READ, readOnly = true)
 	public double getRevenueByProduct(int productId) {
 		Product product = productRepository.findById(productId)
 				.orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + productId));
 
-		if (product != null && (product.getSales() != null && !product.getSales().isEmpty())) {
+		double totalRevenue = archiveService.getCommittedView().getUnits(productId) * product.getPrice();
+
+		if (product.getSales() != null && !product.getSales().isEmpty()) {
 			List<Sale> productSales = product.getSales();
-			double totalRevenue = 0.0;
 
 			for (Sale sale : productSales) {
 				totalRevenue += sale.getQuantity() * sale.getProduct().getPrice();
 			}
-
-			return totalRevenue;
 		}
 
-		return 0.0; // Product not found, return 0 revenue
+		return totalRevenue;
 	}
 
 }
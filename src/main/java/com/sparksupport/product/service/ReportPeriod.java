@@ -0,0 +1,49 @@
+package com.sparksupport.product.service;
+
+import java.time.LocalDate;
+
+/**
+ * Time granularity by which report rows are grouped.
+ */
+public enum ReportPeriod {
+
+	/**
+	 * No grouping by time.
+	 */
+	NONE,
+
+	/**
+	 * One row per day, labelled like 2024-05-03.
+	 */
+	DAY,
+
+	/**
+	 * One row per month, labelled like 2024-05.
+	 */
+	MONTH,
+
+	/**
+	 * One row per year, labelled like 2024.
+	 */
+	YEAR;
+
+	/**
+	 * Returns the label of the period a date falls into.
+	 *
+	 * @param date The date.
+	 * @return The period label, or null for {@link #NONE}.
+	 */
+	public String label(LocalDate date) {
+		switch (this) {
+		case DAY:
+			return date.toString();
+		case MONTH:
+			return date.toString().substring(0, 7);
+		case YEAR:
+			return String.valueOf(date.getYear());
+		default:
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,450 @@
+package com.sparksupport.product.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.sparksupport.product.archive.ArchiveView;
+import com.sparksupport.product.archive.IArchiveService;
+import com.sparksupport.product.dto.ReportJobDto;
+import com.sparksupport.product.dto.ReportResultDto;
+import com.sparksupport.product.dto.ReportRowDto;
+import com.sparksupport.product.dto.ReportSpecDto;
+import com.sparksupport.product.exception.InvalidRequestException;
+import com.sparksupport.product.exception.ReportNotCompletedException;
+import com.sparksupport.product.exception.ReportNotFoundException;
+import com.sparksupport.product.exception.ServiceOverloadedException;
+import com.sparksupport.product.repository.ProductRepository;
+import com.sparksupport.product.repository.ProductSalesTotal;
+import com.sparksupport.product.repository.ProductSummary;
+import com.sparksupport.product.repository.SaleRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Service class generating revenue reports asynchronously.
+ * <p>
+ * A job splits the sale ID range into chunks that a bounded worker pool
+ * aggregates in parallel, together with one task per archive segment. Each
+ * chunk is summed per product and day by the database in pages of sale IDs,
+ * and a cancelled or failed job stops after the page being queried. The
+ * partial aggregates are merged and rolled up to the requested grouping once
+ * all chunks are done. A job keeps its slot, and holds off archive operations,
+ * until every one of its chunk tasks has returned.
+ * Revenue is computed like the revenue endpoints, from the product prices when
+ * the job starts. Finished jobs are kept for a configurable time.
+ */
+@Service
+@Log4j2
+public class ReportService implements IReportService {
+
+	private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+
+	private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private SaleRepository saleRepository;
+
+	@Autowired
+	private IArchiveService archiveService;
+
+	@Value("${sparksupport.reports.chunk-size:50000}")
+	private int chunkSize;
+
+	@Value("${sparksupport.reports.page-size:10000}")
+	private int pageSize;
+
+	@Value("${sparksupport.reports.worker-threads:4}")
+	private int workerThreads;
+
+	@Value("${sparksupport.reports.max-concurrent-jobs:2}")
+	private int maxConcurrentJobs;
+
+	@Value("${sparksupport.reports.max-product-ids:1000}")
+	private int maxProductIds;
+
+	@Value("${sparksupport.reports.retention:1h}")
+	private Duration retention;
+
+	@Value("${sparksupport.reports.retry-after-seconds:30}")
+	private long retryAfterSeconds;
+
+	private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+	private final AtomicInteger activeJobs = new AtomicInteger();
+
+	private ExecutorService coordinators;
+
+	private ExecutorService workers;
+
+	/**
+	 * Creates the job and worker pools.
+	 */
+	@PostConstruct
+	void init() {
+		coordinators = Executors.newFixedThreadPool(maxConcurrentJobs);
+		workers = Executors.newFixedThreadPool(workerThreads);
+	}
+
+	/**
+	 * Stops all running jobs.
+	 */
+	@PreDestroy
+	void shutdown() {
+		coordinators.shutdownNow();
+		workers.shutdownNow();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ReportJobDto submitReport(ReportSpecDto spec) {
+		if (spec.getPeriod() == null) {
+			throw new InvalidRequestException("Report period must be given");
+		}
+		if (spec.getFrom() != null && spec.getTo() != null && spec.getFrom().isAfter(spec.getTo())) {
+			throw new InvalidRequestException("Report start date must not be after its end date");
+		}
+		if (spec.getProductIds() != null) {
+			if (spec.getProductIds().contains(null)) {
+				throw new InvalidRequestException("Product ids must not be null");
+			}
+			spec.setProductIds(List.copyOf(new LinkedHashSet<>(spec.getProductIds())));
+			if (spec.getProductIds().size() > maxProductIds) {
+				throw new InvalidRequestException("At most " + maxProductIds + " product ids can be given");
+			}
+		}
+		removeExpiredJobs();
+
+		if (activeJobs.incrementAndGet() > maxConcurrentJobs) {
+			activeJobs.decrementAndGet();
+			throw new ServiceOverloadedException("Maximum of " + maxConcurrentJobs + " report jobs already running",
+					retryAfterSeconds);
+		}
+		ReportJob job = new ReportJob(UUID.randomUUID().toString(), spec);
+		jobs.put(job.id, job);
+		try {
+			coordinators.execute(() -> run(job));
+		} catch (RuntimeException e) {
+			jobs.remove(job.id);
+			activeJobs.decrementAndGet();
+			throw e;
+		}
+		return toDto(job);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ReportJobDto getReportJob(String jobId) {
+		return toDto(findJob(jobId));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ReportResultDto getReportResult(String jobId) {
+		ReportJob job = findJob(jobId);
+		if (job.status != ReportStatus.COMPLETED) {
+			throw new ReportNotCompletedException("Report " + jobId + " is " + job.status);
+		}
+		return job.result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ReportJobDto cancelReport(String jobId) {
+		ReportJob job = findJob(jobId);
+		// The chunks notice the flag between pages, and the coordinator finishes
+		// the job once all of them have returned
+		if (!job.status.isFinished()) {
+			job.cancelled = true;
+		}
+		return toDto(job);
+	}
+
+	/**
+	 * Executes a job on a coordinator thread.
+	 */
+	private void run(ReportJob job) {
+		try {
+			if (job.cancelled) {
+				throw new CancellationException();
+			}
+			job.status = ReportStatus.RUNNING;
+			ReportSpecDto spec = job.spec;
+			Map<Integer, Double> prices = new HashMap<>();
+			for (ProductSummary product : productRepository.findAllSummaries()) {
+				prices.put(product.getId(), product.getPrice());
+			}
+
+			Map<ReportKey, Long> totals = archiveService.readPinned(archive -> aggregate(job, prices, archive));
+			job.result = buildResult(spec, totals, prices);
+			job.status = ReportStatus.COMPLETED;
+		} catch (CancellationException | CompletionException e) {
+			if (job.cancelled) {
+				job.status = ReportStatus.CANCELLED;
+			} else {
+				fail(job, e.getCause() != null ? e.getCause() : e);
+			}
+		} catch (Exception e) {
+			if (job.cancelled) {
+				job.status = ReportStatus.CANCELLED;
+			} else {
+				fail(job, e);
+			}
+		} finally {
+			job.finishedAt = Instant.now();
+			activeJobs.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Sums the units of the live and archived sales by product and period, with
+	 * one task per chunk of sale IDs and one per archive segment. Runs with
+	 * archive operations held off, so that no sale moves between the chunks and
+	 * the segments meanwhile.
+	 */
+	private Map<ReportKey, Long> aggregate(ReportJob job, Map<Integer, Double> prices, ArchiveView archive) {
+		int minId = saleRepository.findMinId();
+		int maxId = saleRepository.findMaxId();
+		List<ArchiveView> segments = archive.split();
+		List<CompletableFuture<Map<ReportKey, Long>>> parts = new ArrayList<>();
+		int liveChunks = maxId > 0 ? (int) (((long) maxId - minId) / chunkSize + 1) : 0;
+		job.totalChunks = liveChunks + segments.size();
+		try {
+			if (maxId > 0) {
+				for (long from = minId; from <= maxId; from += chunkSize) {
+					int fromId = (int) from;
+					int toId = (int) Math.min(maxId, from + chunkSize - 1);
+					submit(job, parts, () -> aggregateChunk(job, fromId, toId));
+				}
+			}
+			for (ArchiveView segment : segments) {
+				submit(job, parts, () -> aggregateArchived(job, prices, segment));
+			}
+		} catch (RuntimeException e) {
+			job.aborted = true;
+			parts.forEach(part -> part.handle((result, failure) -> null).join());
+			throw e;
+		}
+
+		// Every part is joined, even after a failure, so that no task still
+		// queries the database or reads a segment once the job lets go
+		Map<ReportKey, Long> totals = new HashMap<>();
+		Throwable failure = null;
+		for (CompletableFuture<Map<ReportKey, Long>> part : parts) {
+			try {
+				part.join().forEach((key, units) -> totals.merge(key, units, Long::sum));
+			} catch (CompletionException e) {
+				// Chunks stopped by another's failure end with a cancellation
+				if (failure == null || failure instanceof CancellationException) {
+					failure = e.getCause();
+				}
+			}
+		}
+		if (failure instanceof RuntimeException runtimeFailure) {
+			throw runtimeFailure;
+		}
+		if (failure != null) {
+			throw new CompletionException(failure);
+		}
+		return totals;
+	}
+
+	/**
+	 * Runs a chunk task on the worker pool. The first task to fail makes the
+	 * others stop after their current page.
+	 */
+	private void submit(ReportJob job, List<CompletableFuture<Map<ReportKey, Long>>> parts,
+			Supplier<Map<ReportKey, Long>> task) {
+		CompletableFuture<Map<ReportKey, Long>> part = CompletableFuture.supplyAsync(task, workers);
+		part.whenComplete((result, failure) -> {
+			if (failure != null) {
+				job.aborted = true;
+			}
+		});
+		parts.add(part);
+	}
+
+	/**
+	 * Sums the units of one chunk of sale IDs by product and period, one page of
+	 * IDs per query so that cancellation takes effect between pages.
+	 */
+	private Map<ReportKey, Long> aggregateChunk(ReportJob job, int fromId, int toId) {
+		ReportSpecDto spec = job.spec;
+		LocalDate from = spec.getFrom() != null ? spec.getFrom() : MIN_DATE;
+		LocalDate to = spec.getTo() != null ? spec.getTo() : MAX_DATE;
+		Set<Integer> productIds = spec.getProductIds() != null ? new HashSet<>(spec.getProductIds()) : null;
+
+		Map<ReportKey, Long> partial = new HashMap<>();
+		for (long page = fromId; page <= toId && (productIds == null || !productIds.isEmpty()); page += pageSize) {
+			if (job.isStopping()) {
+				throw new CancellationException();
+			}
+			int pageFrom = (int) page;
+			int pageTo = (int) Math.min(toId, page + pageSize - 1);
+			List<ProductSalesTotal> totals = productIds == null
+					? saleRepository.sumQuantityByProductAndDayInIdRange(pageFrom, pageTo, from, to)
+					: saleRepository.sumQuantityByProductAndDayInIdRangeForProducts(pageFrom, pageTo, from, to,
+							productIds);
+			for (ProductSalesTotal total : totals) {
+				ReportKey key = new ReportKey(total.getProductId(), spec.getPeriod().label(total.getSaleDate()));
+				partial.merge(key, total.getQuantity(), Long::sum);
+			}
+		}
+		job.completedChunks.incrementAndGet();
+		return partial;
+	}
+
+	/**
+	 * Sums the units of the archived sales of one segment by product and period.
+	 * Sales of deleted products are left out, as their revenue no longer counts.
+	 */
+	private Map<ReportKey, Long> aggregateArchived(ReportJob job, Map<Integer, Double> prices, ArchiveView segment) {
+		ReportSpecDto spec = job.spec;
+		Set<Integer> productIds = spec.getProductIds() != null ? new HashSet<>(spec.getProductIds())
+				: prices.keySet();
+		// Summed per product and day first, so each period label is computed once per day
+		Map<Long, Long> daily = new HashMap<>();
+		segment.forEachSale(spec.getFrom(), spec.getTo(), productIds, (saleId, productId, quantity, epochDay) -> {
+			if (job.isStopping()) {
+				throw new CancellationException();
+			}
+			if (prices.containsKey(productId)) {
+				daily.merge(((long) productId << 32) | (epochDay & 0xFFFFFFFFL), (long) quantity, Long::sum);
+			}
+		});
+
+		Map<ReportKey, Long> partial = new HashMap<>();
+		daily.forEach((key, units) -> {
+			LocalDate saleDate = LocalDate.ofEpochDay((int) key.longValue());
+			partial.merge(new ReportKey((int) (key >>> 32), spec.getPeriod().label(saleDate)), units, Long::sum);
+		});
+		job.completedChunks.incrementAndGet();
+		return partial;
+	}
+
+	private ReportResultDto buildResult(ReportSpecDto spec, Map<ReportKey, Long> totals, Map<Integer, Double> prices) {
+		// Partial aggregates are always kept per product, since revenue needs the
+		// product price; rows not grouped by product are rolled up here
+		Map<ReportKey, ReportRowDto> rows = new HashMap<>();
+		long totalUnits = 0;
+		double totalRevenue = 0.0;
+		for (Map.Entry<ReportKey, Long> entry : totals.entrySet()) {
+			ReportKey key = entry.getKey();
+			long units = entry.getValue();
+			double revenue = units * prices.getOrDefault(key.productId(), 0.0);
+			ReportKey rowKey = new ReportKey(spec.isByProduct() ? key.productId() : null, key.period());
+			ReportRowDto row = rows.computeIfAbsent(rowKey,
+					k -> new ReportRowDto(k.productId(), k.period(), 0, 0.0));
+			row.setUnits(row.getUnits() + units);
+			row.setRevenue(row.getRevenue() + revenue);
+			totalUnits += units;
+			totalRevenue += revenue;
+		}
+		List<ReportRowDto> result = new ArrayList<>(rows.values());
+		result.sort(Comparator.comparing(ReportRowDto::getPeriod, Comparator.nullsFirst(Comparator.naturalOrder()))
+				.thenComparing(ReportRowDto::getProductId, Comparator.nullsFirst(Comparator.naturalOrder())));
+		return new ReportResultDto(spec, Instant.now(), totalUnits, totalRevenue, result);
+	}
+
+	private void fail(ReportJob job, Throwable e) {
+		log.error("Report job " + job.id + " failed", e);
+		job.error = e.getMessage();
+		job.status = ReportStatus.FAILED;
+	}
+
+	private ReportJob findJob(String jobId) {
+		ReportJob job = jobs.get(jobId);
+		if (job == null) {
+			throw new ReportNotFoundException("Report not found with id: " + jobId);
+		}
+		return job;
+	}
+
+	private void removeExpiredJobs() {
+		Instant cutoff = Instant.now().minus(retention);
+		jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+	}
+
+	private ReportJobDto toDto(ReportJob job) {
+		return new ReportJobDto(job.id, job.status, job.totalChunks, job.completedChunks.get(), job.submittedAt,
+				job.finishedAt, job.error);
+	}
+
+	/**
+	 * Grouping key of an aggregate, by product and period label.
+	 */
+	private record ReportKey(Integer productId, String period) {
+	}
+
+	/**
+	 * State of a single report job, updated by its coordinator and worker threads.
+	 */
+	private static final class ReportJob {
+
+		private final String id;
+
+		private final ReportSpecDto spec;
+
+		private final Instant submittedAt = Instant.now();
+
+		private final AtomicInteger completedChunks = new AtomicInteger();
+
+		private volatile ReportStatus status = ReportStatus.QUEUED;
+
+		private volatile int totalChunks;
+
+		private volatile boolean cancelled;
+
+		private volatile boolean aborted;
+
+		private volatile Instant finishedAt;
+
+		private volatile String error;
+
+		private volatile ReportResultDto result;
+
+		private ReportJob(String id, ReportSpecDto spec) {
+			this.id = id;
+			this.spec = spec;
+		}
+
+		/**
+		 * Whether the chunk tasks should stop, because the job was cancelled or
+		 * one of its chunks failed.
+		 */
+		private boolean isStopping() {
+			return cancelled || aborted;
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.sparksupport.product.service;
+
+/**
+ * Lifecycle states of a report job.
+ */
+public enum ReportStatus {
+
+	/**
+	 * Accepted and waiting to start.
+	 */
+	QUEUED,
+
+	/**
+	 * Chunks are being aggregated.
+	 */
+	RUNNING,
+
+	/**
+	 * The result is available for download.
+	 */
+	COMPLETED,
+
+	/**
+	 * The job stopped because of an error.
+	 */
+	FAILED,
+
+	/**
+	 * The job was cancelled before it completed.
+	 */
+	CANCELLED;
+
+	/**
+	 * @return True if the job will not change state any more.
+	 */
+	public boolean isFinished() {
+		return this == COMPLETED || this == FAILED || this == CANCELLED;
+	}
+
+}
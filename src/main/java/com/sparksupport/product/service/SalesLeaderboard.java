@@ -0,0 +1,312 @@
+package com.sparksupport.product.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Incrementally maintained ranking of products by units sold and revenue for
+ * each {@link LeaderboardWindow}.
+ * <p>
+ * Every window keeps its standings in two sorted sets, so reading the top N
+ * products is O(N) and recording a sale is O(log P) for P ranked products.
+ * Bounded windows are backed by per-day unit totals that are pruned and
+ * replayed once the date rolls over. Revenue follows the existing revenue
+ * calculation and is always units sold multiplied by the current price.
+ * <p>
+ * All methods are thread-safe.
+ */
+class SalesLeaderboard {
+
+	private static final Comparator<Standing> BY_UNITS = Comparator.comparingLong((Standing s) -> s.units)
+			.reversed().thenComparingInt(s -> s.productId);
+
+	private static final Comparator<Standing> BY_REVENUE = Comparator.comparingDouble(Standing::revenue)
+			.reversed().thenComparingInt(s -> s.productId);
+
+	private final int horizonDays = LeaderboardWindow.maxBoundedDays();
+
+	private final Map<Integer, ProductInfo> products = new HashMap<>();
+
+	private final NavigableMap<LocalDate, Map<Integer, Long>> dailyUnits = new TreeMap<>();
+
+	private final Map<LeaderboardWindow, Ranking> rankings = new EnumMap<>(LeaderboardWindow.class);
+
+	private LocalDate today;
+
+	/**
+	 * Creates an empty leaderboard for the given date.
+	 *
+	 * @param today The current date.
+	 */
+	SalesLeaderboard(LocalDate today) {
+		this.today = today;
+		for (LeaderboardWindow window : LeaderboardWindow.values()) {
+			rankings.put(window, new Ranking());
+		}
+	}
+
+	/**
+	 * @param today The current date.
+	 * @return The earliest sale date for which per-day totals are retained.
+	 */
+	LocalDate horizonStart(LocalDate today) {
+		return today.minusDays(horizonDays - 1L);
+	}
+
+	/**
+	 * Removes all products and sales from the leaderboard.
+	 *
+	 * @param today The current date.
+	 */
+	synchronized void clear(LocalDate today) {
+		this.today = today;
+		products.clear();
+		dailyUnits.clear();
+		rankings.values().forEach(Ranking::clear);
+	}
+
+	/**
+	 * Registers a product or updates its name and price, re-ranking its revenue in
+	 * every window.
+	 *
+	 * @param productId The ID of the product.
+	 * @param name      The name of the product.
+	 * @param price     The current price of the product.
+	 */
+	synchronized void putProduct(int productId, String name, double price) {
+		ProductInfo info = products.get(productId);
+		if (info != null && info.price == price) {
+			info.name = name;
+			return;
+		}
+		products.put(productId, new ProductInfo(name, price));
+		for (Ranking ranking : rankings.values()) {
+			ranking.reprice(productId, price);
+		}
+	}
+
+	/**
+	 * Removes a product and all of its sales from the leaderboard.
+	 *
+	 * @param productId The ID of the product.
+	 */
+	synchronized void removeProduct(int productId) {
+		products.remove(productId);
+		for (Map<Integer, Long> units : dailyUnits.values()) {
+			units.remove(productId);
+		}
+		for (Ranking ranking : rankings.values()) {
+			ranking.remove(productId);
+		}
+	}
+
+	/**
+	 * Adds units to the all-time total of a product without touching the bounded
+	 * windows. Used when warm-loading aggregated totals.
+	 *
+	 * @param productId The ID of the product.
+	 * @param units     The number of units to add.
+	 */
+	synchronized void addAllTimeUnits(int productId, long units) {
+		rankings.get(LeaderboardWindow.ALL).add(productId, priceOf(productId), units);
+	}
+
+	/**
+	 * Adds units sold on a single day to the bounded windows without touching the
+	 * all-time totals. Used when warm-loading aggregated totals.
+	 *
+	 * @param productId The ID of the product.
+	 * @param saleDate  The date the units were sold on.
+	 * @param units     The number of units to add.
+	 */
+	synchronized void addDailyUnits(int productId, LocalDate saleDate, long units) {
+		addToBoundedWindows(productId, saleDate, units);
+	}
+
+	/**
+	 * Records a single sale in every window it falls into.
+	 *
+	 * @param productId The ID of the product.
+	 * @param saleDate  The date of the sale.
+	 * @param units     The quantity sold.
+	 * @param today     The current date.
+	 */
+	synchronized void recordSale(int productId, LocalDate saleDate, long units, LocalDate today) {
+		advanceTo(today);
+		rankings.get(LeaderboardWindow.ALL).add(productId, priceOf(productId), units);
+		addToBoundedWindows(productId, saleDate, units);
+	}
+
+	/**
+	 * Returns the top products of a window ordered by the given metric.
+	 *
+	 * @param metric The metric to rank by.
+	 * @param window The window to read.
+	 * @param limit  The maximum number of products to return.
+	 * @param today  The current date.
+	 * @return The ranked products, best first.
+	 */
+	synchronized List<RankedProduct> top(LeaderboardMetric metric, LeaderboardWindow window, int limit,
+			LocalDate today) {
+		advanceTo(today);
+		Ranking ranking = rankings.get(window);
+		TreeSet<Standing> order = metric == LeaderboardMetric.UNITS ? ranking.byUnits : ranking.byRevenue;
+
+		List<RankedProduct> result = new ArrayList<>(Math.min(limit, order.size()));
+		Iterator<Standing> it = order.iterator();
+		while (it.hasNext() && result.size() < limit) {
+			Standing standing = it.next();
+			ProductInfo info = products.get(standing.productId);
+			result.add(new RankedProduct(result.size() + 1, standing.productId, info != null ? info.name : null,
+					standing.units, standing.revenue()));
+		}
+		return result;
+	}
+
+	private void addToBoundedWindows(int productId, LocalDate saleDate, long units) {
+		if (saleDate == null || saleDate.isBefore(horizonStart(today))) {
+			return;
+		}
+		dailyUnits.computeIfAbsent(saleDate, d -> new HashMap<>()).merge(productId, units, Long::sum);
+		double price = priceOf(productId);
+		for (Map.Entry<LeaderboardWindow, Ranking> entry : rankings.entrySet()) {
+			if (!entry.getKey().isUnbounded() && entry.getKey().contains(saleDate, today)) {
+				entry.getValue().add(productId, price, units);
+			}
+		}
+	}
+
+	/**
+	 * Moves the bounded windows forward once the date has changed by pruning
+	 * expired days and replaying the retained per-day totals.
+	 */
+	private void advanceTo(LocalDate now) {
+		if (now.equals(today)) {
+			return;
+		}
+		today = now;
+		dailyUnits.headMap(horizonStart(now), false).clear();
+
+		for (Map.Entry<LeaderboardWindow, Ranking> entry : rankings.entrySet()) {
+			LeaderboardWindow window = entry.getKey();
+			if (window.isUnbounded()) {
+				continue;
+			}
+			Ranking ranking = entry.getValue();
+			ranking.clear();
+			for (Map.Entry<LocalDate, Map<Integer, Long>> day : dailyUnits.entrySet()) {
+				if (window.contains(day.getKey(), now)) {
+					day.getValue().forEach((productId, units) -> ranking.add(productId, priceOf(productId), units));
+				}
+			}
+		}
+	}
+
+	private double priceOf(int productId) {
+		ProductInfo info = products.get(productId);
+		return info != null ? info.price : 0.0;
+	}
+
+	/**
+	 * A product's position on the leaderboard at the time of the query.
+	 */
+	record RankedProduct(int rank, int productId, String name, long units, double revenue) {
+	}
+
+	private static final class ProductInfo {
+
+		private String name;
+
+		private final double price;
+
+		private ProductInfo(String name, double price) {
+			this.name = name;
+			this.price = price;
+		}
+	}
+
+	private static final class Standing {
+
+		private final int productId;
+
+		private double price;
+
+		private long units;
+
+		private Standing(int productId, double price) {
+			this.productId = productId;
+			this.price = price;
+		}
+
+		private double revenue() {
+			return units * price;
+		}
+	}
+
+	/**
+	 * Standings of a single window. A standing is detached from both sorted sets
+	 * before it is modified, since its position depends on the modified fields.
+	 */
+	private static final class Ranking {
+
+		private final Map<Integer, Standing> standings = new HashMap<>();
+
+		private final TreeSet<Standing> byUnits = new TreeSet<>(BY_UNITS);
+
+		private final TreeSet<Standing> byRevenue = new TreeSet<>(BY_REVENUE);
+
+		private void add(int productId, double price, long units) {
+			Standing standing = standings.get(productId);
+			if (standing == null) {
+				standing = new Standing(productId, price);
+				standings.put(productId, standing);
+			} else {
+				detach(standing);
+			}
+			standing.units += units;
+			attach(standing);
+		}
+
+		private void reprice(int productId, double price) {
+			Standing standing = standings.get(productId);
+			if (standing != null) {
+				byRevenue.remove(standing);
+				standing.price = price;
+				byRevenue.add(standing);
+			}
+		}
+
+		private void remove(int productId) {
+			Standing standing = standings.remove(productId);
+			if (standing != null) {
+				detach(standing);
+			}
+		}
+
+		private void clear() {
+			standings.clear();
+			byUnits.clear();
+			byRevenue.clear();
+		}
+
+		private void detach(Standing standing) {
+			byUnits.remove(standing);
+			byRevenue.remove(standing);
+		}
+
+		private void attach(Standing standing) {
+			byUnits.add(standing);
+			byRevenue.add(standing);
+		}
+	}
+
+}
@@ -0,0 +1,141 @@
+package com.sparksupport.product.service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sparksupport.product.sketch.HeavyHitters;
+import com.sparksupport.product.sketch.HyperLogLog;
+import com.sparksupport.product.sketch.QuantileSketch;
+
+/**
+ * Fixed-size streaming sketches over sales: per-product quantity quantiles and
+ * distinct sale days, plus heavy-hitter products by units sold.
+ * <p>
+ * All methods are thread-safe.
+ */
+class SalesSketches {
+
+	private final double quantileAccuracy;
+
+	private final int hllPrecision;
+
+	private final Map<Integer, ProductSketch> products = new HashMap<>();
+
+	private final HeavyHitters heavyHitters;
+
+	/**
+	 * Creates empty sketches.
+	 *
+	 * @param quantileAccuracy The relative accuracy of quantity quantiles.
+	 * @param hllPrecision     The precision of the distinct sale day counters.
+	 * @param heavyHitterCount The number of heavy-hitter candidates to keep.
+	 * @param countMinDepth    The depth of the heavy-hitter Count-Min sketch.
+	 * @param countMinWidth    The width of the heavy-hitter Count-Min sketch.
+	 */
+	SalesSketches(double quantileAccuracy, int hllPrecision, int heavyHitterCount, int countMinDepth,
+			int countMinWidth) {
+		this.quantileAccuracy = quantileAccuracy;
+		this.hllPrecision = hllPrecision;
+		this.heavyHitters = new HeavyHitters(heavyHitterCount, countMinDepth, countMinWidth);
+	}
+
+	/**
+	 * Adds a sale to the sketches.
+	 *
+	 * @param productId The ID of the product sold.
+	 * @param quantity  The quantity sold.
+	 * @param saleDate  The date of the sale.
+	 */
+	synchronized void record(int productId, int quantity, LocalDate saleDate) {
+		ProductSketch sketch = products.computeIfAbsent(productId, id -> new ProductSketch());
+		sketch.quantities.add(quantity);
+		if (saleDate != null) {
+			sketch.saleDays.add(saleDate.toEpochDay());
+		}
+		heavyHitters.add(productId, quantity);
+	}
+
+	/**
+	 * Drops the per-product sketches of a deleted product. Its units remain in
+	 * the Count-Min sketch until the sketches are rebuilt.
+	 *
+	 * @param productId The ID of the deleted product.
+	 */
+	synchronized void removeProduct(int productId) {
+		products.remove(productId);
+		heavyHitters.remove(productId);
+	}
+
+	/**
+	 * @param productId The ID of the product.
+	 * @return A snapshot of the product's statistics.
+	 */
+	synchronized ProductStats productStats(int productId) {
+		ProductSketch sketch = products.get(productId);
+		if (sketch == null) {
+			return new ProductStats(0, 0.0, 0.0, 0);
+		}
+		return new ProductStats(sketch.quantities.getCount(), sketch.quantities.quantile(0.5),
+				sketch.quantities.quantile(0.95), sketch.saleDays.cardinality());
+	}
+
+	/**
+	 * @param limit The maximum number of products to return.
+	 * @return The heaviest products with their estimated units, heaviest first.
+	 */
+	synchronized List<Map.Entry<Long, Long>> heavyHitters(int limit) {
+		return heavyHitters.top(limit);
+	}
+
+	/**
+	 * @return The total number of units added to the heavy-hitter sketch.
+	 */
+	synchronized long totalUnits() {
+		return heavyHitters.getSketch().getTotalWeight();
+	}
+
+	/**
+	 * @return The relative accuracy of quantity quantiles.
+	 */
+	double quantileAccuracy() {
+		return quantileAccuracy;
+	}
+
+	/**
+	 * @return The relative standard error of distinct sale day counts.
+	 */
+	double distinctDaysStandardError() {
+		return 1.04 / Math.sqrt(1 << hllPrecision);
+	}
+
+	/**
+	 * @return The maximum overcount of heavy-hitter units as a fraction of the
+	 *         total units.
+	 */
+	double heavyHitterEpsilon() {
+		return heavyHitters.getSketch().getEpsilon();
+	}
+
+	/**
+	 * @return The probability that a heavy-hitter estimate exceeds its bound.
+	 */
+	double heavyHitterDelta() {
+		return heavyHitters.getSketch().getDelta();
+	}
+
+	/**
+	 * Statistics of a single product at the time of the query.
+	 */
+	record ProductStats(long sales, double quantityP50, double quantityP95, long distinctSaleDays) {
+	}
+
+	private final class ProductSketch {
+
+		private final QuantileSketch quantities = new QuantileSketch(quantileAccuracy);
+
+		private final HyperLogLog saleDays = new HyperLogLog(hllPrecision);
+	}
+
+}
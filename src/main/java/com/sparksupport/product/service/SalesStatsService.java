@@ -0,0 +1,258 @@
+package com.sparksupport.product.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sparksupport.product.archive.ArchiveView;
+import com.sparksupport.product.archive.IArchiveService;
+import com.sparksupport.product.dto.HeavyHitterDto;
+import com.sparksupport.product.dto.HeavyHittersDto;
+import com.sparksupport.product.dto.ProductStatsDto;
+import com.sparksupport.product.event.ProductDeletedEvent;
+import com.sparksupport.product.event.SaleRecordedEvent;
+import com.sparksupport.product.exception.InvalidRequestException;
+import com.sparksupport.product.exception.OperationInProgressException;
+import com.sparksupport.product.exception.ProductNotFoundException;
+import com.sparksupport.product.repository.ProductRepository;
+import com.sparksupport.product.repository.ProductSummary;
+import com.sparksupport.product.repository.SaleRepository;
+import com.sparksupport.product.repository.SaleRow;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Service class maintaining streaming sketches over sales. Sketches are updated
+ * from sale events after their transaction commits and can be rebuilt from the
+ * sale table.
+ * <p>
+ * A rebuild scans the table and the archived sales of existing products into
+ * fresh sketches while the current ones keep serving. Sales and deletes that
+ * happen during the scan are replayed onto the fresh sketches before they
+ * replace the current ones. The scan records the IDs it has read, so a buffered
+ * sale is replayed exactly when the scan missed it, whatever the order in which
+ * sale IDs were assigned and committed.
+ * <p>
+ * The startup rebuild runs on a background thread once the application is
+ * ready, so it does not delay startup. Until it completes, the sketches only
+ * hold the sales recorded since startup and results are marked as warming.
+ */
+@Service
+@Log4j2
+public class SalesStatsService implements ISalesStatsService {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private SaleRepository saleRepository;
+
+	@Autowired
+	private IArchiveService archiveService;
+
+	@Value("${sparksupport.stats.quantile-accuracy:0.01}")
+	private double quantileAccuracy;
+
+	@Value("${sparksupport.stats.hll-precision:10}")
+	private int hllPrecision;
+
+	@Value("${sparksupport.stats.heavy-hitters:50}")
+	private int heavyHitterCount;
+
+	@Value("${sparksupport.stats.count-min-depth:5}")
+	private int countMinDepth;
+
+	@Value("${sparksupport.stats.count-min-width:2048}")
+	private int countMinWidth;
+
+	@Value("${sparksupport.stats.rebuild-batch-size:10000}")
+	private int rebuildBatchSize;
+
+	@Value("${sparksupport.stats.rebuild-on-startup:true}")
+	private boolean rebuildOnStartup;
+
+	private final Object lock = new Object();
+
+	private volatile SalesSketches sketches;
+
+	private volatile boolean warming;
+
+	private List<SaleRecordedEvent> pendingSales;
+
+	private List<Integer> pendingDeletes;
+
+	/**
+	 * Creates the initial, empty sketches.
+	 */
+	@PostConstruct
+	void init() {
+		sketches = newSketches();
+		warming = rebuildOnStartup;
+	}
+
+	/**
+	 * Starts filling the sketches from the sale table in the background once the
+	 * application is ready to serve requests.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	void warmUp() {
+		if (!rebuildOnStartup) {
+			return;
+		}
+		Thread thread = new Thread(() -> {
+			try {
+				rebuild();
+			} catch (Exception e) {
+				log.error("Unable to build sales sketches at startup", e);
+			}
+		}, "sales-sketches-warm-up");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ProductStatsDto getProductStats(int productId) {
+		if (!productRepository.existsById(productId)) {
+			throw new ProductNotFoundException("Product not found with id: " + productId);
+		}
+		SalesSketches current = sketches;
+		SalesSketches.ProductStats stats = current.productStats(productId);
+		return new ProductStatsDto(productId, stats.sales(), stats.quantityP50(), stats.quantityP95(),
+				current.quantileAccuracy(), stats.distinctSaleDays(), current.distinctDaysStandardError(), warming);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public HeavyHittersDto getHeavyHitters(int limit) {
+		if (limit < 1 || limit > heavyHitterCount) {
+			throw new InvalidRequestException("Limit must be between 1 and " + heavyHitterCount);
+		}
+		SalesSketches current = sketches;
+		long totalUnits = current.totalUnits();
+		List<HeavyHitterDto> products = current.heavyHitters(limit).stream()
+				.map(entry -> new HeavyHitterDto(entry.getKey().intValue(), entry.getValue()))
+				.collect(Collectors.toList());
+		return new HeavyHittersDto(totalUnits, (long) Math.ceil(current.heavyHitterEpsilon() * totalUnits),
+				1 - current.heavyHitterDelta(), products, warming);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long rebuild() {
+		synchronized (lock) {
+			if (pendingSales != null) {
+				throw new OperationInProgressException("Sales sketches are already being rebuilt");
+			}
+			pendingSales = new ArrayList<>();
+			pendingDeletes = new ArrayList<>();
+		}
+		try {
+			SalesSketches fresh = newSketches();
+			BitSet scannedIds = new BitSet();
+			long scanned = archiveService.readPinned(archive -> scan(fresh, scannedIds, archive));
+
+			synchronized (lock) {
+				for (SaleRecordedEvent event : pendingSales) {
+					if (!scannedIds.get(event.getSaleId())) {
+						fresh.record(event.getProductId(), event.getQuantity(), event.getSaleDate());
+					}
+				}
+				pendingDeletes.forEach(fresh::removeProduct);
+				sketches = fresh;
+				warming = false;
+			}
+			log.info("Sales sketches rebuilt from {} sales", scanned);
+			return scanned;
+		} finally {
+			synchronized (lock) {
+				pendingSales = null;
+				pendingDeletes = null;
+			}
+		}
+	}
+
+	/**
+	 * Adds a committed sale to the sketches.
+	 *
+	 * @param event The sale event.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onSaleRecorded(SaleRecordedEvent event) {
+		synchronized (lock) {
+			sketches.record(event.getProductId(), event.getQuantity(), event.getSaleDate());
+			if (pendingSales != null) {
+				pendingSales.add(event);
+			}
+		}
+	}
+
+	/**
+	 * Drops the sketches of a deleted product.
+	 *
+	 * @param event The delete event.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductDeleted(ProductDeletedEvent event) {
+		synchronized (lock) {
+			sketches.removeProduct(event.getProductId());
+			if (pendingDeletes != null) {
+				pendingDeletes.add(event.getProductId());
+			}
+		}
+	}
+
+	/**
+	 * Records every live sale and every archived sale of an existing product in
+	 * the sketches. Runs with archive operations held off, so that no sale is
+	 * missed or counted twice by moving between the table and the archive.
+	 *
+	 * @return The number of sales scanned.
+	 */
+	private long scan(SalesSketches fresh, BitSet scannedIds, ArchiveView archive) {
+		int lastId = 0;
+		long scanned = 0;
+		List<SaleRow> rows;
+		do {
+			rows = saleRepository.findRowsAfter(lastId, PageRequest.of(0, rebuildBatchSize));
+			for (SaleRow row : rows) {
+				if (row.getProductId() != null) {
+					fresh.record(row.getProductId(), row.getQuantity(), row.getSaleDate());
+				}
+				scannedIds.set(row.getId());
+				lastId = row.getId();
+			}
+			scanned += rows.size();
+		} while (rows.size() == rebuildBatchSize);
+
+		// Archived sales of deleted products no longer count
+		Set<Integer> productIds = productRepository.findAllSummaries().stream().map(ProductSummary::getId)
+				.collect(Collectors.toSet());
+		long[] archived = new long[1];
+		archive.forEachSale(null, null, productIds, (saleId, productId, quantity, epochDay) -> {
+			fresh.record(productId, quantity, LocalDate.ofEpochDay(epochDay));
+			archived[0]++;
+		});
+		return scanned + archived[0];
+	}
+
+	private SalesSketches newSketches() {
+		return new SalesSketches(quantileAccuracy, hllPrecision, heavyHitterCount, countMinDepth, countMinWidth);
+	}
+
+}
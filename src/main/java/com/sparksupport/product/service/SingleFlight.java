@@ -0,0 +1,160 @@
+package com.sparksupport.product.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.sparksupport.product.config.CoalescingProperties;
+import com.sparksupport.product.exception.ProductOperationException;
+import com.sparksupport.product.exception.ServiceOverloadedException;
+
+/**
+ * Coalesces identical concurrent calls: the first caller for a key executes the
+ * call and every caller arriving while it runs waits for and shares its result
+ * or exception. Joined callers each get their own copy of a mutable result.
+ */
+@Component
+public class SingleFlight {
+
+	@Autowired
+	private CoalescingProperties properties;
+
+	private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+	/**
+	 * Executes a call with an immutable result, or joins an identical call
+	 * already in flight.
+	 *
+	 * @param <T>       The result type of the call.
+	 * @param operation The name of the operation, which must be enabled in the
+	 *                  configuration to be coalesced.
+	 * @param key       The arguments identifying identical calls of the
+	 *                  operation.
+	 * @param call      The call to execute.
+	 * @return The result of the call.
+	 * @throws ServiceOverloadedException If the shared execution did not finish
+	 *                                    within the configured timeout.
+	 */
+	public <T> T execute(String operation, Object key, Supplier<T> call) {
+		return execute(operation, key, call, UnaryOperator.identity());
+	}
+
+	/**
+	 * Executes a call, or joins an identical call already in flight. The caller
+	 * executing the call gets its result, and every joined caller a copy of it.
+	 *
+	 * @param <T>       The result type of the call.
+	 * @param operation The name of the operation, which must be enabled in the
+	 *                  configuration to be coalesced.
+	 * @param key       The arguments identifying identical calls of the
+	 *                  operation.
+	 * @param call      The call to execute.
+	 * @param copy      Copies a result deeply enough that callers cannot see
+	 *                  each other's changes.
+	 * @return The result of the call.
+	 * @throws ServiceOverloadedException If the shared execution did not finish
+	 *                                    within the configured timeout.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T execute(String operation, Object key, Supplier<T> call, UnaryOperator<T> copy) {
+		CoalescingProperties.Operation settings = properties.getOperations().get(operation);
+		if (!properties.isEnabled() || settings == null || !settings.isEnabled()
+				|| !settings.getKeys().isEmpty() && !settings.getKeys().contains(String.valueOf(key))) {
+			return call.get();
+		}
+		Duration timeout = settings.getTimeout() != null ? settings.getTimeout() : properties.getTimeout();
+		Counters stats = counters.computeIfAbsent(operation, name -> new Counters());
+		String flightKey = operation + ":" + key;
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, future);
+
+		if (existing == null) {
+			stats.executions.increment();
+			try {
+				T result = call.get();
+				// Joined callers copy from a snapshot the executing caller cannot change
+				future.complete(result != null ? copy.apply(result) : null);
+				return result;
+			} catch (RuntimeException | Error e) {
+				future.completeExceptionally(e);
+				throw e;
+			} finally {
+				inFlight.remove(flightKey, future);
+			}
+		}
+
+		stats.coalesced.increment();
+		try {
+			T result = (T) existing.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+			return result != null ? copy.apply(result) : null;
+		} catch (TimeoutException e) {
+			stats.timeouts.increment();
+			throw new ServiceOverloadedException("Timed out waiting for in-flight " + operation + " call",
+					Math.max(1, timeout.toSeconds()));
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw new ProductOperationException("In-flight " + operation + " call failed", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ProductOperationException("Interrupted while waiting for " + operation + " call", e);
+		}
+	}
+
+	/**
+	 * @return The counters of every operation called so far, keyed by operation.
+	 */
+	public Map<String, Counters> getCounters() {
+		return counters;
+	}
+
+	/**
+	 * Call counters of a single operation.
+	 */
+	public static final class Counters {
+
+		private final LongAdder executions = new LongAdder();
+
+		private final LongAdder coalesced = new LongAdder();
+
+		private final LongAdder timeouts = new LongAdder();
+
+		/**
+		 * @return The number of calls that executed.
+		 */
+		public long getExecutions() {
+			return executions.sum();
+		}
+
+		/**
+		 * @return The number of calls that joined an execution in flight.
+		 */
+		public long getCoalesced() {
+			return coalesced.sum();
+		}
+
+		/**
+		 * @return The number of coalesced calls that timed out waiting.
+		 */
+		public long getTimeouts() {
+			return timeouts.sum();
+		}
+	}
+
+}
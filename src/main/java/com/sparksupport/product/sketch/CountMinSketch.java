@@ -0,0 +1,106 @@
+package com.sparksupport.product.sketch;
+
+/**
+ * Mergeable Count-Min sketch estimating the total weight added per item.
+ * <p>
+ * Estimates never undercount. With probability at least {@code 1 - delta} an
+ * estimate overcounts by at most {@code epsilon * totalWeight}, where
+ * {@code epsilon = e / width} and {@code delta = e^-depth}.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class CountMinSketch {
+
+	private final int depth;
+
+	private final int width;
+
+	private final long[][] table;
+
+	private long totalWeight;
+
+	/**
+	 * Creates an empty sketch.
+	 *
+	 * @param depth The number of hash rows.
+	 * @param width The number of counters per row.
+	 */
+	public CountMinSketch(int depth, int width) {
+		if (depth < 1 || width < 1) {
+			throw new IllegalArgumentException("Depth and width must be positive");
+		}
+		this.depth = depth;
+		this.width = width;
+		this.table = new long[depth][width];
+	}
+
+	/**
+	 * Adds weight to an item.
+	 *
+	 * @param item   The item.
+	 * @param weight The weight to add.
+	 */
+	public void add(long item, long weight) {
+		long hash = Hashing.mix64(item);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int row = 0; row < depth; row++) {
+			table[row][Math.floorMod(h1 + row * h2, width)] += weight;
+		}
+		totalWeight += weight;
+	}
+
+	/**
+	 * @param item The item.
+	 * @return The estimated total weight added for the item.
+	 */
+	public long estimate(long item) {
+		long hash = Hashing.mix64(item);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		long estimate = Long.MAX_VALUE;
+		for (int row = 0; row < depth; row++) {
+			estimate = Math.min(estimate, table[row][Math.floorMod(h1 + row * h2, width)]);
+		}
+		return estimate;
+	}
+
+	/**
+	 * Merges another sketch into this one.
+	 *
+	 * @param other The sketch to merge, which must have the same dimensions.
+	 */
+	public void merge(CountMinSketch other) {
+		if (other.depth != depth || other.width != width) {
+			throw new IllegalArgumentException("Cannot merge Count-Min sketches with different dimensions");
+		}
+		for (int row = 0; row < depth; row++) {
+			for (int col = 0; col < width; col++) {
+				table[row][col] += other.table[row][col];
+			}
+		}
+		totalWeight += other.totalWeight;
+	}
+
+	/**
+	 * @return The total weight added across all items.
+	 */
+	public long getTotalWeight() {
+		return totalWeight;
+	}
+
+	/**
+	 * @return The maximum overcount as a fraction of the total weight.
+	 */
+	public double getEpsilon() {
+		return Math.E / width;
+	}
+
+	/**
+	 * @return The probability that an estimate exceeds the epsilon bound.
+	 */
+	public double getDelta() {
+		return Math.exp(-depth);
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.sparksupport.product.sketch;
+
+/**
+ * Hash helpers shared by the sketches.
+ */
+final class Hashing {
+
+	private Hashing() {
+	}
+
+	/**
+	 * Mixes a 64-bit value into a well distributed 64-bit hash using the MurmurHash3
+	 * finalizer.
+	 *
+	 * @param value The value to hash.
+	 * @return The 64-bit hash.
+	 */
+	static long mix64(long value) {
+		long h = value;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+}
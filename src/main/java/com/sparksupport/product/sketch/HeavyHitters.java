@@ -0,0 +1,116 @@
+package com.sparksupport.product.sketch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the items with the largest total weight using a {@link CountMinSketch}
+ * and a fixed number of candidate items.
+ * <p>
+ * An item is kept as a candidate while its estimated weight is among the top
+ * {@code capacity} estimates seen, so every item whose true weight exceeds
+ * {@code epsilon * totalWeight} more than the smallest candidate is reported.
+ * Reported weights carry the error bound of the underlying sketch.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class HeavyHitters {
+
+	private final int capacity;
+
+	private final CountMinSketch sketch;
+
+	private final Map<Long, Long> candidates = new HashMap<>();
+
+	/**
+	 * Creates an empty tracker.
+	 *
+	 * @param capacity The number of candidate items to keep.
+	 * @param depth    The depth of the Count-Min sketch.
+	 * @param width    The width of the Count-Min sketch.
+	 */
+	public HeavyHitters(int capacity, int depth, int width) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		this.capacity = capacity;
+		this.sketch = new CountMinSketch(depth, width);
+	}
+
+	/**
+	 * Adds weight to an item.
+	 *
+	 * @param item   The item.
+	 * @param weight The weight to add.
+	 */
+	public void add(long item, long weight) {
+		sketch.add(item, weight);
+		offer(item, sketch.estimate(item));
+	}
+
+	/**
+	 * Stops reporting an item until weight is added to it again.
+	 *
+	 * @param item The item.
+	 */
+	public void remove(long item) {
+		candidates.remove(item);
+	}
+
+	/**
+	 * Returns the heaviest items, heaviest first.
+	 *
+	 * @param limit The maximum number of items to return.
+	 * @return The items with their estimated weights.
+	 */
+	public List<Map.Entry<Long, Long>> top(int limit) {
+		List<Map.Entry<Long, Long>> entries = new ArrayList<>(candidates.entrySet());
+		entries.sort(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder())
+				.thenComparing(Map.Entry.comparingByKey()));
+		return new ArrayList<>(entries.subList(0, Math.min(limit, entries.size())));
+	}
+
+	/**
+	 * Merges another tracker into this one and re-estimates the union of both
+	 * candidate sets.
+	 *
+	 * @param other The tracker to merge, which must have the same dimensions.
+	 */
+	public void merge(HeavyHitters other) {
+		sketch.merge(other.sketch);
+		List<Long> items = new ArrayList<>(candidates.keySet());
+		items.addAll(other.candidates.keySet());
+		candidates.clear();
+		for (Long item : items) {
+			offer(item, sketch.estimate(item));
+		}
+	}
+
+	/**
+	 * @return The underlying Count-Min sketch.
+	 */
+	public CountMinSketch getSketch() {
+		return sketch;
+	}
+
+	private void offer(long item, long estimate) {
+		if (candidates.containsKey(item) || candidates.size() < capacity) {
+			candidates.put(item, estimate);
+			return;
+		}
+		Map.Entry<Long, Long> lightest = null;
+		for (Map.Entry<Long, Long> entry : candidates.entrySet()) {
+			if (lightest == null || entry.getValue() < lightest.getValue()) {
+				lightest = entry;
+			}
+		}
+		if (lightest != null && estimate > lightest.getValue()) {
+			candidates.remove(lightest.getKey());
+			candidates.put(item, estimate);
+		}
+	}
+
+}
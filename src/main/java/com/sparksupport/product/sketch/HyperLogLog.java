@@ -0,0 +1,88 @@
+package com.sparksupport.product.sketch;
+
+/**
+ * Mergeable HyperLogLog sketch estimating the number of distinct values added.
+ * <p>
+ * Uses {@code 2^precision} one-byte registers and has a relative standard error
+ * of {@code 1.04 / sqrt(2^precision)}, for example 4.6% at precision 9. Small
+ * cardinalities are estimated with linear counting, which is close to exact.
+ * Adding the same value again never changes the estimate.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class HyperLogLog {
+
+	private final int precision;
+
+	private final byte[] registers;
+
+	/**
+	 * Creates an empty sketch.
+	 *
+	 * @param precision The number of index bits, between 4 and 16.
+	 */
+	public HyperLogLog(int precision) {
+		if (precision < 4 || precision > 16) {
+			throw new IllegalArgumentException("Precision must be between 4 and 16");
+		}
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	/**
+	 * Adds a value to the sketch.
+	 *
+	 * @param value The value to add.
+	 */
+	public void add(long value) {
+		long hash = Hashing.mix64(value);
+		int index = (int) (hash >>> (64 - precision));
+		byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+		if (rank > registers[index]) {
+			registers[index] = rank;
+		}
+	}
+
+	/**
+	 * @return The estimated number of distinct values added.
+	 */
+	public long cardinality() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += 1.0 / (1L << register);
+			if (register == 0) {
+				zeros++;
+			}
+		}
+		double alpha = 0.7213 / (1 + 1.079 / m);
+		double estimate = alpha * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			estimate = m * Math.log((double) m / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	/**
+	 * Merges another sketch into this one.
+	 *
+	 * @param other The sketch to merge, which must have the same precision.
+	 */
+	public void merge(HyperLogLog other) {
+		if (other.precision != precision) {
+			throw new IllegalArgumentException("Cannot merge HyperLogLog sketches with different precision");
+		}
+		for (int i = 0; i < registers.length; i++) {
+			registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+		}
+	}
+
+	/**
+	 * @return The relative standard error of the cardinality estimate.
+	 */
+	public double getStandardError() {
+		return 1.04 / Math.sqrt(registers.length);
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.sparksupport.product.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch with relative error guarantees, following the
+ * DDSketch design.
+ * <p>
+ * Positive values are counted in logarithmically sized buckets, so any quantile
+ * returned is within {@code relativeAccuracy} of the true value at that rank
+ * (for example 1% for an accuracy of 0.01). Values below 1 are counted as 0.
+ * The number of buckets is bounded by {@code ln(max) / ln(gamma)}, about 1,100
+ * buckets for values up to {@link Integer#MAX_VALUE} at 1% accuracy, and the
+ * bucket array only grows as far as the largest value seen.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class QuantileSketch {
+
+	private final double relativeAccuracy;
+
+	private final double logGamma;
+
+	private long[] counts = new long[0];
+
+	private long zeroCount;
+
+	private long count;
+
+	private long min = Long.MAX_VALUE;
+
+	private long max = Long.MIN_VALUE;
+
+	/**
+	 * Creates an empty sketch.
+	 *
+	 * @param relativeAccuracy The relative accuracy of returned quantiles, between
+	 *                         0 and 1 exclusive.
+	 */
+	public QuantileSketch(double relativeAccuracy) {
+		if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+			throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+		}
+		this.relativeAccuracy = relativeAccuracy;
+		this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+	}
+
+	/**
+	 * Adds a value to the sketch.
+	 *
+	 * @param value The value to add.
+	 */
+	public void add(long value) {
+		if (value < 1) {
+			zeroCount++;
+		} else {
+			int index = (int) Math.ceil(Math.log(value) / logGamma);
+			if (index >= counts.length) {
+				counts = Arrays.copyOf(counts, index + 1);
+			}
+			counts[index]++;
+		}
+		count++;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Returns the estimated value at the given quantile.
+	 *
+	 * @param quantile The quantile, between 0 and 1 inclusive.
+	 * @return The estimated value, or 0 if the sketch is empty.
+	 */
+	public double quantile(double quantile) {
+		if (quantile < 0 || quantile > 1) {
+			throw new IllegalArgumentException("Quantile must be between 0 and 1");
+		}
+		if (count == 0) {
+			return 0.0;
+		}
+		long rank = (long) (quantile * (count - 1));
+		long seen = zeroCount;
+		if (seen > rank) {
+			return Math.max(0, min);
+		}
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen > rank) {
+				double value = 2 * Math.exp(i * logGamma) / (1 + Math.exp(logGamma));
+				return Math.min(Math.max(value, min), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Merges another sketch into this one.
+	 *
+	 * @param other The sketch to merge, which must have the same accuracy.
+	 */
+	public void merge(QuantileSketch other) {
+		if (other.relativeAccuracy != relativeAccuracy) {
+			throw new IllegalArgumentException("Cannot merge quantile sketches with different accuracy");
+		}
+		if (other.counts.length > counts.length) {
+			counts = Arrays.copyOf(counts, other.counts.length);
+		}
+		for (int i = 0; i < other.counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		zeroCount += other.zeroCount;
+		count += other.count;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * @return The number of values added.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return The relative accuracy of returned quantiles.
+	 */
+	public double getRelativeAccuracy() {
+		return relativeAccuracy;
+	}
+
+}
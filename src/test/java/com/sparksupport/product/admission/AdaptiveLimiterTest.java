@@ -0,0 +1,178 @@
+package com.sparksupport.product.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveLimiterTest {
+
+	private static final long MILLIS = 1_000_000L;
+
+	@Test
+	void admitsUpToTheLimit() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(3, 1, 10, 2.0, 0.5);
+
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+
+		assertEquals(3, limiter.getInFlight());
+		assertEquals(3, limiter.getAccepted());
+		assertEquals(1, limiter.getRejected());
+	}
+
+	@Test
+	void appliesTheShareToTheLimit() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 10, 2.0, 0.5);
+
+		assertTrue(limiter.tryAcquire(0.5));
+		assertTrue(limiter.tryAcquire(0.5));
+		assertFalse(limiter.tryAcquire(0.5));
+		assertTrue(limiter.tryAcquire(1.0));
+	}
+
+	@Test
+	void growsByOneWhenSaturated() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 10, 2.0, 0.5);
+		limiter.tryAcquire();
+		limiter.tryAcquire();
+
+		assertFalse(limiter.release(MILLIS, false));
+
+		assertEquals(5, limiter.getLimit());
+		assertEquals(1, limiter.getInFlight());
+	}
+
+	@Test
+	void doesNotGrowWhenLightlyUsed() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 10, 2.0, 0.5);
+		limiter.tryAcquire();
+
+		limiter.release(MILLIS, false);
+
+		assertEquals(4, limiter.getLimit());
+	}
+
+	@Test
+	void backsOffOnSlowRequests() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(8, 1, 10, 2.0, 0.5);
+		limiter.tryAcquire();
+		limiter.release(MILLIS, false);
+
+		limiter.tryAcquire();
+		assertTrue(limiter.release(3 * MILLIS, false));
+
+		assertEquals(4, limiter.getLimit());
+	}
+
+	@Test
+	void backsOffOnFailures() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(8, 1, 10, 2.0, 0.5);
+		limiter.tryAcquire();
+
+		assertTrue(limiter.release(MILLIS, true));
+
+		assertEquals(4, limiter.getLimit());
+	}
+
+	@Test
+	void neverShrinksBelowTheMinimum() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(8, 3, 10, 2.0, 0.5);
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire();
+			limiter.release(MILLIS, true);
+		}
+
+		assertEquals(3, limiter.getLimit());
+	}
+
+	@Test
+	void neverGrowsAboveTheMaximum() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 4, 2.0, 0.5);
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire();
+			limiter.tryAcquire();
+			limiter.release(MILLIS, false);
+			limiter.release(MILLIS, false);
+		}
+
+		assertEquals(4, limiter.getLimit());
+	}
+
+	@Test
+	void clampsTheInitialLimit() {
+		assertEquals(4, new AdaptiveLimiter(100, 1, 4, 2.0, 0.5).getLimit());
+		assertEquals(2, new AdaptiveLimiter(0, 2, 4, 2.0, 0.5).getLimit());
+	}
+
+	@Test
+	void baselineDriftsSlowlyUpwards() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 10, 2.0, 0.5);
+		limiter.tryAcquire();
+		limiter.release(MILLIS, false);
+		assertEquals(1.0, limiter.getBaselineMillis(), 1e-9);
+
+		// One percent of the difference per request
+		limiter.tryAcquire();
+		limiter.release(2 * MILLIS, false);
+		assertEquals(1.01, limiter.getBaselineMillis(), 1e-9);
+
+		for (int i = 0; i < 500; i++) {
+			limiter.tryAcquire();
+			limiter.release(2 * MILLIS, false);
+		}
+		assertEquals(2.0, limiter.getBaselineMillis(), 0.01);
+	}
+
+	@Test
+	void baselineDropsAtOnceToFasterRequests() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 10, 2.0, 0.5);
+		limiter.tryAcquire();
+		limiter.release(5 * MILLIS, false);
+		limiter.tryAcquire();
+		limiter.release(MILLIS, false);
+
+		assertEquals(1.0, limiter.getBaselineMillis(), 1e-9);
+	}
+
+	@Test
+	void slowRequestsAreJudgedAgainstTheDriftedBaseline() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 10, 2.0, 0.5);
+		limiter.tryAcquire();
+		limiter.release(MILLIS, false);
+		for (int i = 0; i < 500; i++) {
+			limiter.tryAcquire();
+			limiter.release(3 * MILLIS / 2, false);
+		}
+
+		// 2.5 ms exceeds twice the original baseline but not twice the drifted one
+		limiter.tryAcquire();
+		assertFalse(limiter.release(5 * MILLIS / 2, false));
+	}
+
+	@Test
+	void cancelDoesNotAdaptTheLimit() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10, 2.0, 0.5);
+		limiter.tryAcquire();
+		limiter.tryAcquire();
+
+		limiter.cancel();
+
+		assertEquals(2, limiter.getLimit());
+		assertEquals(1, limiter.getInFlight());
+		assertEquals(1, limiter.getAccepted());
+	}
+
+	@Test
+	void rejectsInvalidSettings() {
+		assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimiter(4, 0, 10, 2.0, 0.5));
+		assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimiter(4, 5, 4, 2.0, 0.5));
+		assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimiter(4, 1, 10, 1.0, 0.5));
+		assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimiter(4, 1, 10, 2.0, 1.0));
+	}
+
+}
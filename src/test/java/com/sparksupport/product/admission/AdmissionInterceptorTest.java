@@ -0,0 +1,34 @@
+package com.sparksupport.product.admission;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLTransientConnectionException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import com.sparksupport.product.exception.InvalidRequestException;
+
+class AdmissionInterceptorTest {
+
+	@Test
+	void dependencyOverloadIsCongestion() {
+		assertTrue(AdmissionInterceptor.isOverload(new QueryTimeoutException("timeout")));
+		assertTrue(AdmissionInterceptor.isOverload(new CannotCreateTransactionException("no connection",
+				new SQLTransientConnectionException("Connection is not available, request timed out"))));
+		assertTrue(AdmissionInterceptor.isOverload(
+				new IllegalStateException("wrapped", new SQLTransientConnectionException("pool exhausted"))));
+	}
+
+	@Test
+	void requestErrorsAreNotCongestion() {
+		assertFalse(AdmissionInterceptor.isOverload(null));
+		assertFalse(AdmissionInterceptor.isOverload(new InvalidRequestException("bad id")));
+		assertFalse(AdmissionInterceptor.isOverload(new NumberFormatException("For input string: \"abc\"")));
+		assertFalse(AdmissionInterceptor.isOverload(new DataIntegrityViolationException("duplicate")));
+	}
+
+}
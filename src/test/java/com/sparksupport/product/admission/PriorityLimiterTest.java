@@ -0,0 +1,97 @@
+package com.sparksupport.product.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PriorityLimiterTest {
+
+	@Test
+	void lowerClassesMayOnlyUseTheirShare() {
+		PriorityLimiter limiter = new PriorityLimiter(10, 1, 100, 0.5);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limiter.tryAcquire(PriorityClass.LOW));
+		}
+
+		assertFalse(limiter.tryAcquire(PriorityClass.LOW));
+		assertTrue(limiter.tryAcquire(PriorityClass.HIGH));
+		assertEquals(6, limiter.getInFlight());
+		assertEquals(1, limiter.getRejected(PriorityClass.LOW));
+	}
+
+	@Test
+	void congestionOfALowClassLeavesHigherLimitsAlone() {
+		PriorityLimiter limiter = new PriorityLimiter(10, 1, 100, 0.5);
+		limiter.tryAcquire(PriorityClass.LOW);
+
+		limiter.release(PriorityClass.LOW, true);
+
+		assertEquals(10, limiter.getLimit(PriorityClass.CRITICAL));
+		assertEquals(10, limiter.getLimit(PriorityClass.HIGH));
+		assertEquals(10, limiter.getLimit(PriorityClass.NORMAL));
+		assertEquals(5, limiter.getLimit(PriorityClass.LOW));
+	}
+
+	@Test
+	void congestionOfAHighClassLowersAllClassesBelow() {
+		PriorityLimiter limiter = new PriorityLimiter(10, 1, 100, 0.5);
+		limiter.tryAcquire(PriorityClass.HIGH);
+
+		limiter.release(PriorityClass.HIGH, true);
+
+		assertEquals(10, limiter.getLimit(PriorityClass.CRITICAL));
+		assertEquals(5, limiter.getLimit(PriorityClass.HIGH));
+		assertEquals(5, limiter.getLimit(PriorityClass.NORMAL));
+		assertEquals(5, limiter.getLimit(PriorityClass.LOW));
+	}
+
+	@Test
+	void uncongestedRequestsRaiseSaturatedLimits() {
+		PriorityLimiter limiter = new PriorityLimiter(4, 1, 100, 0.5);
+		limiter.tryAcquire(PriorityClass.LOW);
+		limiter.release(PriorityClass.LOW, true);
+		limiter.tryAcquire(PriorityClass.CRITICAL);
+		limiter.tryAcquire(PriorityClass.CRITICAL);
+		limiter.tryAcquire(PriorityClass.CRITICAL);
+
+		limiter.release(PriorityClass.CRITICAL, false);
+
+		// Three in flight saturate both the limit of 4 and the lowered limit of 2
+		assertEquals(5, limiter.getLimit(PriorityClass.CRITICAL));
+		assertEquals(3, limiter.getLimit(PriorityClass.LOW));
+	}
+
+	@Test
+	void limitsStayWithinBounds() {
+		PriorityLimiter limiter = new PriorityLimiter(4, 2, 5, 0.5);
+		for (int i = 0; i < 5; i++) {
+			limiter.tryAcquire(PriorityClass.CRITICAL);
+			limiter.release(PriorityClass.CRITICAL, true);
+		}
+		assertEquals(2, limiter.getLimit(PriorityClass.LOW));
+
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire(PriorityClass.CRITICAL);
+			limiter.tryAcquire(PriorityClass.CRITICAL);
+			limiter.release(PriorityClass.CRITICAL, false);
+			limiter.release(PriorityClass.CRITICAL, false);
+		}
+		assertEquals(5, limiter.getLimit(PriorityClass.CRITICAL));
+	}
+
+	@Test
+	void cancelDoesNotAdaptTheLimits() {
+		PriorityLimiter limiter = new PriorityLimiter(2, 1, 100, 0.5);
+		limiter.tryAcquire(PriorityClass.CRITICAL);
+		limiter.tryAcquire(PriorityClass.CRITICAL);
+
+		limiter.cancel(PriorityClass.CRITICAL);
+
+		assertEquals(2, limiter.getLimit(PriorityClass.CRITICAL));
+		assertEquals(1, limiter.getInFlight());
+		assertEquals(1, limiter.getAccepted(PriorityClass.CRITICAL));
+	}
+
+}
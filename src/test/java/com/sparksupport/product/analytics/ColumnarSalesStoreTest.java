@@ -0,0 +1,144 @@
+package com.sparksupport.product.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ColumnarSalesStoreTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@AfterEach
+	void shutdown() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void sumsUnitsWithinADateRange() {
+		ColumnarSalesStore store = new ColumnarSalesStore(pool);
+		store.append(1, 5, 100);
+		store.append(2, 3, 101);
+		store.append(1, 2, 102);
+		store.append(3, 7, 99);
+
+		assertArrayEquals(new long[] { 0, 7, 3, 0 }, store.unitsByProduct(100, 102));
+		assertArrayEquals(new long[] { 0, 5, 3, 0 }, store.unitsByProduct(100, 101));
+		assertArrayEquals(new long[] { 0, 7, 3, 7 }, store.unitsByProduct());
+	}
+
+	@Test
+	void matchesANaiveSumAcrossSegments() {
+		ColumnarSalesStore store = new ColumnarSalesStore(pool);
+		Random random = new Random(5);
+		int products = 50;
+		long[] expected = new long[products];
+		long[] expectedAllTime = new long[products];
+		// More rows than one segment holds, so scans cross a segment boundary
+		for (int row = 0; row < (1 << 20) + 50_000; row++) {
+			int productId = random.nextInt(products);
+			int quantity = 1 + random.nextInt(20);
+			int day = 19_000 + random.nextInt(400);
+			store.append(productId, quantity, day);
+			expectedAllTime[productId] += quantity;
+			if (day >= 19_100 && day <= 19_200) {
+				expected[productId] += quantity;
+			}
+		}
+
+		// Product slots grow by doubling, so the arrays may be longer
+		assertArrayEquals(expected, Arrays.copyOf(store.unitsByProduct(19_100, 19_200), products));
+		assertArrayEquals(expectedAllTime, Arrays.copyOf(store.unitsByProduct(), products));
+	}
+
+	@Test
+	void sumsRevenueAtTheCurrentPrice() {
+		ColumnarSalesStore store = new ColumnarSalesStore(pool);
+		store.setPrice(1, 250);
+		store.setPrice(2, 1_000);
+		store.append(1, 4, 10);
+		store.append(2, 1, 10);
+		store.append(1, 2, 12);
+
+		long[][] all = store.totalsByDay(10, 12, -1);
+		assertArrayEquals(new long[] { 5, 0, 2 }, all[0]);
+		assertArrayEquals(new long[] { 2_000, 0, 500 }, all[1]);
+
+		store.setPrice(1, 300);
+		long[][] product = store.totalsByDay(10, 12, 1);
+		assertArrayEquals(new long[] { 4, 0, 2 }, product[0]);
+		assertArrayEquals(new long[] { 1_200, 0, 600 }, product[1]);
+	}
+
+	@Test
+	void excludesDeletedProducts() {
+		ColumnarSalesStore store = new ColumnarSalesStore(pool);
+		store.setPrice(1, 100);
+		store.setPrice(2, 100);
+		store.append(1, 4, 10);
+		store.append(2, 6, 10);
+
+		store.deleteProduct(1);
+
+		assertFalse(store.isLive(1));
+		assertTrue(store.isLive(2));
+		assertEquals(0, store.priceCents(1));
+		assertArrayEquals(new long[] { 0, 0, 6 }, Arrays.copyOf(store.unitsByProduct(), 3));
+		assertArrayEquals(new long[] { 0, 0, 6 }, Arrays.copyOf(store.unitsByProduct(0, 100), 3));
+		assertArrayEquals(new long[] { 600 }, store.totalsByDay(10, 10, -1)[1]);
+
+		store.setPrice(1, 100);
+		assertEquals(4, store.unitsByProduct()[1]);
+	}
+
+	@Test
+	void readsConsistentTotalsWhileAppending() throws InterruptedException {
+		ColumnarSalesStore store = new ColumnarSalesStore(pool);
+		AtomicBoolean done = new AtomicBoolean();
+		Thread writer = new Thread(() -> {
+			// Each product gets exactly its ID in units per round
+			for (int round = 0; round < 20_000; round++) {
+				for (int productId = 1; productId <= 8; productId++) {
+					store.append(productId, productId, 1);
+				}
+			}
+			done.set(true);
+		});
+		writer.start();
+
+		while (!done.get()) {
+			long[] units = store.unitsByProduct();
+			for (int productId = 1; productId < units.length; productId++) {
+				assertEquals(0, units[productId] % productId, "torn total of product " + productId);
+			}
+		}
+		writer.join();
+		assertEquals(20_000L * 8, store.unitsByProduct()[8]);
+	}
+
+	@Test
+	void scansMillionsOfRowsQuickly() {
+		ColumnarSalesStore store = new ColumnarSalesStore(pool);
+		for (int row = 0; row < 4_000_000; row++) {
+			store.append(row % 1_000, 1, 19_000 + row % 365);
+		}
+
+		// A generous bound that a row-at-a-time boxed scan would miss by far
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			for (int i = 0; i < 20; i++) {
+				assertEquals(4_000, store.unitsByProduct(19_000, 19_364)[7]);
+			}
+		});
+	}
+
+}
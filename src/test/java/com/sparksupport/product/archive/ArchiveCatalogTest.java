@@ -0,0 +1,106 @@
+package com.sparksupport.product.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sparksupport.product.dto.SaleDto;
+
+class ArchiveCatalogTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void sumsUnitsAcrossSegments() throws IOException {
+		ArchiveCatalog catalog = new ArchiveCatalog(List.of(
+				segment("old.seg", new ArchivedSale(1, 1, 2, 10), new ArchivedSale(2, 2, 3, 11)),
+				segment("new.seg", new ArchivedSale(3, 1, 4, 20))));
+
+		assertEquals(6, catalog.getUnits(1));
+		assertEquals(3, catalog.getUnits(2));
+		assertEquals(0, catalog.getUnits(3));
+		assertEquals(Map.of(1, 6L, 2, 3L), catalog.getUnitsByProduct());
+		assertEquals(3, catalog.sales());
+	}
+
+	@Test
+	void mergesTheSalesOfAProductOldestFirst() throws IOException {
+		// Both segments hold sales of day 20, so the merge has to sort across them
+		ArchiveCatalog catalog = new ArchiveCatalog(List.of(
+				segment("b.seg", new ArchivedSale(8, 1, 1, 20), new ArchivedSale(9, 1, 1, 25)),
+				segment("a.seg", new ArchivedSale(5, 1, 1, 10), new ArchivedSale(7, 1, 1, 20))));
+
+		Map<Integer, List<SaleDto>> sales = catalog.getSales(List.of(1, 2));
+
+		assertFalse(sales.containsKey(2));
+		assertEquals(List.of(5, 7, 8, 9), sales.get(1).stream().map(SaleDto::getId).collect(Collectors.toList()));
+		assertEquals(LocalDate.ofEpochDay(10), sales.get(1).get(0).getSaleDate());
+	}
+
+	@Test
+	void filtersSalesByDate() throws IOException {
+		ArchiveCatalog catalog = new ArchiveCatalog(List.of(
+				segment("a.seg", new ArchivedSale(1, 1, 1, 10), new ArchivedSale(2, 1, 2, 20)),
+				segment("b.seg", new ArchivedSale(3, 2, 4, 30))));
+
+		long[] units = new long[1];
+		catalog.forEachSale(LocalDate.ofEpochDay(15), null, null,
+				(saleId, productId, quantity, epochDay) -> units[0] += quantity);
+
+		assertEquals(6, units[0]);
+	}
+
+	@Test
+	void addsRemovesAndSplitsSegments() throws IOException {
+		ArchiveSegment first = segment("a.seg", new ArchivedSale(1, 1, 1, 10));
+		ArchiveSegment second = segment("b.seg", new ArchivedSale(2, 1, 2, 20));
+
+		ArchiveCatalog catalog = ArchiveCatalog.EMPTY.with(first).with(second);
+		assertSame(second, catalog.segment("b.seg"));
+		assertEquals(2, catalog.split().size());
+		assertEquals(2, catalog.split().get(1).getUnits(1));
+
+		ArchiveCatalog remaining = catalog.without(first);
+		assertNull(remaining.segment("a.seg"));
+		assertEquals(2, remaining.getUnits(1));
+		assertEquals(3, catalog.getUnits(1));
+	}
+
+	@Test
+	void reportsCorruptBlocksOnRead() throws IOException {
+		ArchiveSegment segment = segment("a.seg", new ArchivedSale(1, 1, 1, 10), new ArchivedSale(2, 1, 2, 20));
+		byte[] bytes = Files.readAllBytes(segment.path());
+		bytes[bytes.length - 3] ^= 0x5A;
+		Files.write(directory.resolve("corrupt.seg"), bytes);
+		ArchiveCatalog catalog = new ArchiveCatalog(
+				List.of(ArchiveSegment.open(directory.resolve("corrupt.seg"), false)));
+
+		// The index is intact, so totals still work without inflating the body
+		assertEquals(3, catalog.getUnits(1));
+		assertThrows(UncheckedIOException.class, () -> catalog.getSales(List.of(1)));
+		assertTrue(catalog.getSales(List.of(2)).isEmpty());
+	}
+
+	private ArchiveSegment segment(String name, ArchivedSale... sales) throws IOException {
+		Path path = directory.resolve(name);
+		ArchiveSegment.write(path, sales);
+		return ArchiveSegment.open(path, true);
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.sparksupport.product.archive;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ArchiveSegmentTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void roundTripsSalesSortedByProductDateAndId() throws IOException {
+		Path path = directory.resolve("a.seg");
+		ArchiveSegment.write(path, new ArchivedSale[] { new ArchivedSale(7, 2, 3, 100), new ArchivedSale(5, 1, 1, 102),
+				new ArchivedSale(4, 2, 2, 100), new ArchivedSale(9, 2, 5, 90), new ArchivedSale(8, 3, 4, 95) });
+
+		ArchiveSegment segment = ArchiveSegment.open(path, true);
+
+		assertEquals(5, segment.rows());
+		assertEquals(3, segment.products());
+		assertEquals(90, segment.minDay());
+		assertEquals(102, segment.maxDay());
+		assertEquals(4, segment.minSaleId());
+		assertEquals(9, segment.maxSaleId());
+		assertEquals(Files.size(path), segment.bytes());
+
+		ArchiveSegment.Rows rows = segment.read(2);
+		assertArrayEquals(new int[] { 9, 4, 7 }, rows.saleIds());
+		assertArrayEquals(new int[] { 5, 2, 3 }, rows.quantities());
+		assertArrayEquals(new int[] { 90, 100, 100 }, rows.epochDays());
+	}
+
+	@Test
+	void looksUpUnitsAndBlocksByProduct() throws IOException {
+		List<ArchivedSale> sales = new ArrayList<>();
+		int saleId = 1;
+		for (int productId = 10; productId <= 200; productId += 10) {
+			for (int day = 0; day < 50; day++) {
+				sales.add(new ArchivedSale(saleId++, productId, productId / 10, 1000 + day));
+			}
+		}
+		Path path = directory.resolve("b.seg");
+		ArchiveSegment.write(path, sales.toArray(new ArchivedSale[0]));
+
+		ArchiveSegment segment = ArchiveSegment.open(path, true);
+
+		assertEquals(20, segment.products());
+		assertTrue(segment.containsProduct(10));
+		assertTrue(segment.containsProduct(200));
+		assertFalse(segment.containsProduct(15));
+		assertEquals(50 * 7, segment.units(70));
+		assertEquals(0, segment.units(15));
+		assertNull(segment.read(15));
+		assertEquals(50, segment.read(130).size());
+
+		List<Integer> productIds = new ArrayList<>();
+		segment.forEachProduct((productId, units) -> productIds.add(productId));
+		assertEquals(20, productIds.size());
+		assertEquals(10, productIds.get(0));
+		assertEquals(200, productIds.get(19));
+	}
+
+	@Test
+	void scansOnlyTheSelectedDaysAndProducts() throws IOException {
+		Path path = directory.resolve("c.seg");
+		ArchiveSegment.write(path, new ArchivedSale[] { new ArchivedSale(1, 1, 1, 10), new ArchivedSale(2, 1, 2, 20),
+				new ArchivedSale(3, 2, 4, 20), new ArchivedSale(4, 3, 8, 30) });
+		ArchiveSegment segment = ArchiveSegment.open(path, true);
+
+		long[] units = new long[1];
+		segment.scan(15, 30, Set.of(1, 3), (saleId, productId, quantity, epochDay) -> units[0] += quantity);
+		assertEquals(10, units[0]);
+
+		units[0] = 0;
+		segment.scan(31, 40, null, (saleId, productId, quantity, epochDay) -> units[0] += quantity);
+		assertEquals(0, units[0]);
+	}
+
+	@Test
+	void writesAnEmptySegment() throws IOException {
+		Path path = directory.resolve("d.seg");
+		ArchiveSegment.write(path, new ArchivedSale[0]);
+
+		ArchiveSegment segment = ArchiveSegment.open(path, true);
+
+		assertEquals(0, segment.rows());
+		assertEquals(0, segment.products());
+		assertNull(segment.read(1));
+	}
+
+	@Test
+	void detectsACorruptBody() throws IOException {
+		Path path = directory.resolve("e.seg");
+		ArchiveSegment.write(path, new ArchivedSale[] { new ArchivedSale(1, 1, 1, 10), new ArchivedSale(2, 1, 2, 20) });
+		long size = Files.size(path);
+		flipByte(path, size - 3);
+
+		assertThrows(IOException.class, () -> ArchiveSegment.open(path, true));
+		ArchiveSegment unverified = ArchiveSegment.open(path, false);
+		assertFalse(unverified.verify());
+		assertThrows(IOException.class, () -> unverified.read(1));
+	}
+
+	@Test
+	void rejectsTruncatedAndForeignFiles() throws IOException {
+		Path path = directory.resolve("f.seg");
+		ArchiveSegment.write(path, new ArchivedSale[] { new ArchivedSale(1, 1, 1, 10) });
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.truncate(Files.size(path) - 1);
+		}
+		assertThrows(IOException.class, () -> ArchiveSegment.open(path, false));
+
+		Path foreign = Files.write(directory.resolve("g.seg"), new byte[100]);
+		assertThrows(IOException.class, () -> ArchiveSegment.open(foreign, false));
+	}
+
+	private static void flipByte(Path path, long position) throws IOException {
+		byte[] bytes = Files.readAllBytes(path);
+		bytes[(int) position] ^= 0x5A;
+		Files.write(path, bytes);
+	}
+
+}
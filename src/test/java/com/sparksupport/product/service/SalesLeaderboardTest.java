@@ -0,0 +1,136 @@
+package com.sparksupport.product.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class SalesLeaderboardTest {
+
+	private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+
+	@Test
+	void ranksByUnitsAndByRevenue() {
+		SalesLeaderboard leaderboard = new SalesLeaderboard(TODAY);
+		leaderboard.putProduct(1, "Cheap", 1.0);
+		leaderboard.putProduct(2, "Dear", 100.0);
+		leaderboard.recordSale(1, TODAY, 50, TODAY);
+		leaderboard.recordSale(2, TODAY, 2, TODAY);
+
+		List<SalesLeaderboard.RankedProduct> byUnits = leaderboard.top(LeaderboardMetric.UNITS,
+				LeaderboardWindow.ALL, 10, TODAY);
+		assertEquals(List.of(1, 2), productIds(byUnits));
+		assertEquals(1, byUnits.get(0).rank());
+		assertEquals(50, byUnits.get(0).units());
+		assertEquals("Cheap", byUnits.get(0).name());
+
+		List<SalesLeaderboard.RankedProduct> byRevenue = leaderboard.top(LeaderboardMetric.REVENUE,
+				LeaderboardWindow.ALL, 10, TODAY);
+		assertEquals(List.of(2, 1), productIds(byRevenue));
+		assertEquals(200.0, byRevenue.get(0).revenue(), 1e-9);
+	}
+
+	@Test
+	void breaksTiesByProductId() {
+		SalesLeaderboard leaderboard = new SalesLeaderboard(TODAY);
+		for (int productId : new int[] { 7, 3, 5 }) {
+			leaderboard.putProduct(productId, "P" + productId, 2.0);
+			leaderboard.recordSale(productId, TODAY, 4, TODAY);
+		}
+
+		assertEquals(List.of(3, 5, 7),
+				productIds(leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.DAY, 10, TODAY)));
+		assertEquals(List.of(3, 5, 7),
+				productIds(leaderboard.top(LeaderboardMetric.REVENUE, LeaderboardWindow.DAY, 10, TODAY)));
+		assertEquals(List.of(3, 5),
+				productIds(leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.DAY, 2, TODAY)));
+	}
+
+	@Test
+	void repricingReordersRevenueOnly() {
+		SalesLeaderboard leaderboard = new SalesLeaderboard(TODAY);
+		leaderboard.putProduct(1, "A", 10.0);
+		leaderboard.putProduct(2, "B", 5.0);
+		leaderboard.recordSale(1, TODAY, 3, TODAY);
+		leaderboard.recordSale(2, TODAY, 4, TODAY);
+
+		leaderboard.putProduct(1, "A", 1.0);
+
+		assertEquals(List.of(2, 1),
+				productIds(leaderboard.top(LeaderboardMetric.REVENUE, LeaderboardWindow.WEEK, 10, TODAY)));
+		assertEquals(List.of(2, 1),
+				productIds(leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.WEEK, 10, TODAY)));
+		assertEquals(3.0, leaderboard.top(LeaderboardMetric.REVENUE, LeaderboardWindow.WEEK, 10, TODAY).get(1)
+				.revenue(), 1e-9);
+	}
+
+	@Test
+	void boundedWindowsEvictExpiredDays() {
+		SalesLeaderboard leaderboard = new SalesLeaderboard(TODAY);
+		leaderboard.putProduct(1, "Old", 1.0);
+		leaderboard.putProduct(2, "New", 1.0);
+		leaderboard.recordSale(1, TODAY.minusDays(6), 10, TODAY);
+		leaderboard.recordSale(2, TODAY, 1, TODAY);
+
+		assertEquals(List.of(2),
+				productIds(leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.DAY, 10, TODAY)));
+		assertEquals(List.of(1, 2),
+				productIds(leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.WEEK, 10, TODAY)));
+
+		// A day later the sale of six days ago has left the week
+		LocalDate tomorrow = TODAY.plusDays(1);
+		assertTrue(leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.DAY, 10, tomorrow).isEmpty());
+		assertEquals(List.of(2),
+				productIds(leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.WEEK, 10, tomorrow)));
+		assertEquals(List.of(1, 2),
+				productIds(leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.MONTH, 10, tomorrow)));
+		assertEquals(List.of(1, 2),
+				productIds(leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.ALL, 10, tomorrow)));
+
+		// Past the longest window only the all-time totals remain
+		LocalDate later = TODAY.plusDays(40);
+		assertTrue(leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.MONTH, 10, later).isEmpty());
+		assertEquals(11, leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.ALL, 10, later).stream()
+				.mapToLong(SalesLeaderboard.RankedProduct::units).sum());
+	}
+
+	@Test
+	void ignoresDailyUnitsBeforeTheHorizon() {
+		SalesLeaderboard leaderboard = new SalesLeaderboard(TODAY);
+		leaderboard.putProduct(1, "A", 1.0);
+
+		leaderboard.addDailyUnits(1, leaderboard.horizonStart(TODAY).minusDays(1), 5);
+		leaderboard.addDailyUnits(1, leaderboard.horizonStart(TODAY), 2);
+		leaderboard.addAllTimeUnits(1, 7);
+
+		assertEquals(2, leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.MONTH, 1, TODAY).get(0).units());
+		assertEquals(7, leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.ALL, 1, TODAY).get(0).units());
+	}
+
+	@Test
+	void removedProductsLeaveEveryWindow() {
+		SalesLeaderboard leaderboard = new SalesLeaderboard(TODAY);
+		leaderboard.putProduct(1, "A", 1.0);
+		leaderboard.putProduct(2, "B", 1.0);
+		leaderboard.recordSale(1, TODAY, 5, TODAY);
+		leaderboard.recordSale(2, TODAY, 3, TODAY);
+
+		leaderboard.removeProduct(1);
+
+		for (LeaderboardWindow window : LeaderboardWindow.values()) {
+			assertEquals(List.of(2), productIds(leaderboard.top(LeaderboardMetric.UNITS, window, 10, TODAY)));
+		}
+		// The removed product's days are not replayed when the date rolls over
+		assertEquals(List.of(2),
+				productIds(leaderboard.top(LeaderboardMetric.UNITS, LeaderboardWindow.WEEK, 10, TODAY.plusDays(1))));
+	}
+
+	private static List<Integer> productIds(List<SalesLeaderboard.RankedProduct> ranked) {
+		return ranked.stream().map(SalesLeaderboard.RankedProduct::productId).collect(Collectors.toList());
+	}
+
+}
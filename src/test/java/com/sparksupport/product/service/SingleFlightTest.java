@@ -0,0 +1,142 @@
+package com.sparksupport.product.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sparksupport.product.config.CoalescingProperties;
+import com.sparksupport.product.dto.ProductDto;
+import com.sparksupport.product.dto.SaleDto;
+import com.sparksupport.product.exception.ServiceOverloadedException;
+
+class SingleFlightTest {
+
+	private final CoalescingProperties properties = new CoalescingProperties();
+
+	private final SingleFlight singleFlight = new SingleFlight();
+
+	private final ExecutorService pool = Executors.newFixedThreadPool(2);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(singleFlight, "properties", properties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void joinedCallersGetTheirOwnCopy() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Future<ProductDto> owner = pool.submit(() -> singleFlight.execute("product", 1, () -> {
+			await(release);
+			return product();
+		}, CoalescingProductService::copyOf));
+		awaitExecutions("product", 1);
+		Future<ProductDto> joined = pool.submit(() -> singleFlight.execute("product", 1, () -> product(),
+				CoalescingProductService::copyOf));
+		awaitCoalesced("product", 1);
+		release.countDown();
+
+		ProductDto ownerResult = owner.get(5, TimeUnit.SECONDS);
+		ProductDto joinedResult = joined.get(5, TimeUnit.SECONDS);
+		assertNotSame(ownerResult, joinedResult);
+		assertEquals(ownerResult, joinedResult);
+
+		ownerResult.setPrice(0.0);
+		ownerResult.getSales().get(0).setQuantity(99);
+		assertEquals(10.0, joinedResult.getPrice(), 1e-9);
+		assertEquals(3, joinedResult.getSales().get(0).getQuantity());
+	}
+
+	@Test
+	void unlistedAndDisabledOperationsAreNotCoalesced() {
+		properties.getOperations().get("total-revenue").setEnabled(false);
+		AtomicInteger calls = new AtomicInteger();
+
+		singleFlight.execute("total-revenue", "", calls::incrementAndGet);
+		singleFlight.execute("other", "", calls::incrementAndGet);
+
+		assertEquals(2, calls.get());
+		assertFalse(singleFlight.getCounters().containsKey("total-revenue"));
+		assertFalse(singleFlight.getCounters().containsKey("other"));
+	}
+
+	@Test
+	void onlyConfiguredKeysAreCoalesced() {
+		properties.getOperations().get("product").setKeys(Set.of("1"));
+
+		singleFlight.execute("product", 2, () -> product());
+		assertFalse(singleFlight.getCounters().containsKey("product"));
+
+		singleFlight.execute("product", 1, () -> product());
+		assertEquals(1, singleFlight.getCounters().get("product").getExecutions());
+	}
+
+	@Test
+	void operationTimeoutOverridesTheDefault() throws Exception {
+		properties.getOperations().get("revenue-by-product").setTimeout(Duration.ofMillis(50));
+		CountDownLatch release = new CountDownLatch(1);
+		Future<Double> owner = pool.submit(() -> singleFlight.execute("revenue-by-product", 1, () -> {
+			await(release);
+			return 1.0;
+		}));
+		awaitExecutions("revenue-by-product", 1);
+
+		try {
+			assertThrows(ServiceOverloadedException.class,
+					() -> singleFlight.execute("revenue-by-product", 1, () -> 2.0));
+			assertEquals(1, singleFlight.getCounters().get("revenue-by-product").getTimeouts());
+		} finally {
+			release.countDown();
+		}
+		assertEquals(1.0, owner.get(5, TimeUnit.SECONDS), 1e-9);
+	}
+
+	private static ProductDto product() {
+		List<SaleDto> sales = new ArrayList<>(List.of(new SaleDto(7, 3, LocalDate.of(2024, 1, 1))));
+		return new ProductDto(1, "Pen", "Blue pen", 10.0, 5, sales);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void awaitExecutions(String operation, long executions) throws InterruptedException {
+		while (singleFlight.getCounters().get(operation) == null
+				|| singleFlight.getCounters().get(operation).getExecutions() < executions) {
+			Thread.sleep(1);
+		}
+	}
+
+	private void awaitCoalesced(String operation, long coalesced) throws InterruptedException {
+		while (singleFlight.getCounters().get(operation).getCoalesced() < coalesced) {
+			Thread.sleep(1);
+		}
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.sparksupport.product.sketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CountMinSketchTest {
+
+	@Test
+	void neverUndercountsAndRarelyExceedsTheBound() {
+		Random random = new Random(11);
+		int items = 10_000;
+		long[] exact = new long[items];
+		CountMinSketch sketch = new CountMinSketch(5, 512);
+		for (int i = 0; i < 200_000; i++) {
+			int item = skewed(random, items);
+			int weight = 1 + random.nextInt(10);
+			exact[item] += weight;
+			sketch.add(item, weight);
+		}
+
+		double bound = sketch.getEpsilon() * sketch.getTotalWeight();
+		int exceeded = 0;
+		for (int item = 0; item < items; item++) {
+			long estimate = sketch.estimate(item);
+			assertTrue(estimate >= exact[item], "undercount of item " + item);
+			if (estimate - exact[item] > bound) {
+				exceeded++;
+			}
+		}
+		// The bound holds per item with probability 1 - delta
+		assertTrue(exceeded <= 2 * sketch.getDelta() * items, exceeded + " items exceeded the bound");
+	}
+
+	@Test
+	void mergeEqualsASketchOfBothStreams() {
+		CountMinSketch first = new CountMinSketch(4, 256);
+		CountMinSketch second = new CountMinSketch(4, 256);
+		CountMinSketch both = new CountMinSketch(4, 256);
+		for (int i = 0; i < 5_000; i++) {
+			first.add(i % 700, 2);
+			second.add(i % 300, 3);
+			both.add(i % 700, 2);
+			both.add(i % 300, 3);
+		}
+
+		first.merge(second);
+
+		assertEquals(both.getTotalWeight(), first.getTotalWeight());
+		for (int item = 0; item < 700; item++) {
+			assertEquals(both.estimate(item), first.estimate(item));
+		}
+	}
+
+	@Test
+	void reportsItsErrorBounds() {
+		CountMinSketch sketch = new CountMinSketch(5, 2048);
+
+		assertEquals(Math.E / 2048, sketch.getEpsilon(), 1e-12);
+		assertEquals(Math.exp(-5), sketch.getDelta(), 1e-12);
+	}
+
+	@Test
+	void rejectsMismatchedMergesAndInvalidDimensions() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new CountMinSketch(4, 256).merge(new CountMinSketch(5, 256)));
+		assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 256));
+	}
+
+	/**
+	 * Picks items with a roughly Zipf-like skew, low IDs far more often.
+	 */
+	static int skewed(Random random, int items) {
+		return (int) Math.min(items - 1, Math.floor(Math.pow(items, random.nextDouble())) - 1);
+	}
+
+}
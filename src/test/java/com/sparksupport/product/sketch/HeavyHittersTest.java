@@ -0,0 +1,64 @@
+package com.sparksupport.product.sketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class HeavyHittersTest {
+
+	@Test
+	void reportsTheHeaviestItemsWithinTheBound() {
+		Random random = new Random(3);
+		int items = 5_000;
+		long[] exact = new long[items];
+		HeavyHitters heavyHitters = new HeavyHitters(20, 5, 2048);
+		for (int i = 0; i < 100_000; i++) {
+			int item = CountMinSketchTest.skewed(random, items);
+			exact[item]++;
+			heavyHitters.add(item, 1);
+		}
+
+		List<Map.Entry<Long, Long>> top = heavyHitters.top(5);
+		assertEquals(List.of(0L, 1L, 2L, 3L, 4L), top.stream().map(Map.Entry::getKey).collect(Collectors.toList()));
+		double bound = heavyHitters.getSketch().getEpsilon() * heavyHitters.getSketch().getTotalWeight();
+		for (Map.Entry<Long, Long> entry : top) {
+			long overcount = entry.getValue() - exact[entry.getKey().intValue()];
+			assertTrue(overcount >= 0 && overcount <= bound, "overcount " + overcount);
+		}
+	}
+
+	@Test
+	void removedItemsAreNoLongerReported() {
+		HeavyHitters heavyHitters = new HeavyHitters(3, 4, 256);
+		heavyHitters.add(1, 100);
+		heavyHitters.add(2, 50);
+
+		heavyHitters.remove(1);
+
+		assertEquals(List.of(2L), heavyHitters.top(3).stream().map(Map.Entry::getKey).collect(Collectors.toList()));
+	}
+
+	@Test
+	void mergeKeepsTheHeaviestOfBothTrackers() {
+		HeavyHitters first = new HeavyHitters(2, 4, 256);
+		HeavyHitters second = new HeavyHitters(2, 4, 256);
+		first.add(1, 10);
+		first.add(2, 5);
+		second.add(3, 20);
+		second.add(2, 30);
+
+		first.merge(second);
+
+		List<Map.Entry<Long, Long>> top = first.top(2);
+		assertEquals(2L, top.get(0).getKey());
+		assertEquals(35L, top.get(0).getValue());
+		assertEquals(3L, top.get(1).getKey());
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.sparksupport.product.sketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+	@Test
+	void estimatesWithinThreeStandardErrors() {
+		for (int precision : new int[] { 9, 10, 14 }) {
+			HyperLogLog sketch = new HyperLogLog(precision);
+			long added = 0;
+			for (long distinct : new long[] { 1_000, 10_000, 100_000, 1_000_000 }) {
+				for (; added < distinct; added++) {
+					sketch.add(added * 31 + 7);
+				}
+				double error = Math.abs(sketch.cardinality() - distinct) / (double) distinct;
+				assertTrue(error <= 3 * sketch.getStandardError(),
+						"precision " + precision + ", " + distinct + " values: error " + error);
+			}
+		}
+	}
+
+	@Test
+	void smallCardinalitiesAreNearlyExact() {
+		HyperLogLog sketch = new HyperLogLog(10);
+		for (int day = 0; day < 30; day++) {
+			sketch.add(19_000 + day);
+		}
+
+		assertEquals(30, sketch.cardinality(), 1);
+	}
+
+	@Test
+	void duplicatesDoNotChangeTheEstimate() {
+		HyperLogLog sketch = new HyperLogLog(10);
+		for (int i = 0; i < 5_000; i++) {
+			sketch.add(i);
+		}
+		long estimate = sketch.cardinality();
+
+		for (int i = 0; i < 5_000; i++) {
+			sketch.add(i);
+		}
+
+		assertEquals(estimate, sketch.cardinality());
+	}
+
+	@Test
+	void mergeEstimatesTheUnion() {
+		HyperLogLog first = new HyperLogLog(12);
+		HyperLogLog second = new HyperLogLog(12);
+		HyperLogLog union = new HyperLogLog(12);
+		for (int i = 0; i < 60_000; i++) {
+			first.add(i);
+			union.add(i);
+		}
+		for (int i = 40_000; i < 100_000; i++) {
+			second.add(i);
+			union.add(i);
+		}
+
+		first.merge(second);
+
+		assertEquals(union.cardinality(), first.cardinality());
+		assertTrue(Math.abs(first.cardinality() - 100_000) <= 3 * first.getStandardError() * 100_000);
+	}
+
+	@Test
+	void rejectsMismatchedMergesAndInvalidPrecision() {
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(11)));
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(17));
+	}
+
+}
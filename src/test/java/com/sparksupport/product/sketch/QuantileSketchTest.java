@@ -0,0 +1,77 @@
+package com.sparksupport.product.sketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class QuantileSketchTest {
+
+	private static final double[] QUANTILES = { 0, 0.01, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 1 };
+
+	@Test
+	void quantilesStayWithinTheRelativeAccuracy() {
+		Random random = new Random(42);
+		long[] values = new long[100_000];
+		QuantileSketch sketch = new QuantileSketch(0.01);
+		for (int i = 0; i < values.length; i++) {
+			// Log-normal values spanning several orders of magnitude
+			values[i] = Math.max(1, Math.round(Math.exp(4 + 2 * random.nextGaussian())));
+			sketch.add(values[i]);
+		}
+
+		assertWithinAccuracy(sketch, values);
+	}
+
+	@Test
+	void mergedSketchesKeepTheAccuracy() {
+		Random random = new Random(7);
+		long[] values = new long[20_000];
+		QuantileSketch first = new QuantileSketch(0.02);
+		QuantileSketch second = new QuantileSketch(0.02);
+		for (int i = 0; i < values.length; i++) {
+			values[i] = 1 + random.nextInt(i < values.length / 2 ? 100 : 100_000);
+			(i < values.length / 2 ? first : second).add(values[i]);
+		}
+
+		first.merge(second);
+
+		assertEquals(values.length, first.getCount());
+		assertWithinAccuracy(first, values);
+	}
+
+	@Test
+	void countsValuesBelowOneAsZero() {
+		QuantileSketch sketch = new QuantileSketch(0.01);
+		sketch.add(0);
+		sketch.add(0);
+		sketch.add(10);
+
+		assertEquals(0.0, sketch.quantile(0.5), 0.0);
+		assertEquals(10.0, sketch.quantile(1), 0.1);
+		assertEquals(0.0, new QuantileSketch(0.01).quantile(0.5), 0.0);
+	}
+
+	@Test
+	void rejectsMismatchedMergesAndInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0.01).merge(new QuantileSketch(0.02)));
+		assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(1.0));
+		assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0.01).quantile(1.5));
+	}
+
+	private static void assertWithinAccuracy(QuantileSketch sketch, long[] values) {
+		long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		for (double quantile : QUANTILES) {
+			long exact = sorted[(int) (quantile * (sorted.length - 1))];
+			double estimate = sketch.quantile(quantile);
+			assertTrue(Math.abs(estimate - exact) <= sketch.getRelativeAccuracy() * exact + 1e-9,
+					"q" + quantile + ": estimate " + estimate + " for " + exact);
+		}
+	}
+
+}